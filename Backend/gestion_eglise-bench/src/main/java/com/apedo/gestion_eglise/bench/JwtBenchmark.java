@@ -0,0 +1,41 @@
+package com.apedo.gestion_eglise.bench;
+
+import com.apedo.gestion_eglise.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of issuing an access token and of the per-request validation done by AuthTokenFilter
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    private static final String SECRET =
+            "SecretKeyToGenJWTsMustBeLongAndSecureEnoughForProductionUseButForDevItIsFine";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        BenchSupport.setField(jwtUtils, "jwtSecret", SECRET);
+        BenchSupport.setField(jwtUtils, "jwtExpirationMs", 900000);
+        BenchSupport.invoke(jwtUtils, "init");
+        token = jwtUtils.generateTokenFromUsername("admin@eglisemanager.com");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateTokenFromUsername("admin@eglisemanager.com");
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return jwtUtils.getValidatedClaims(token);
+    }
+}
@@ -0,0 +1,62 @@
+package com.apedo.gestion_eglise.bench;
+
+import com.apedo.gestion_eglise.entities.AccountType;
+import com.apedo.gestion_eglise.entities.TransactionType;
+import com.apedo.gestion_eglise.repositories.TransactionRepository;
+import com.apedo.gestion_eglise.services.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// In-memory part of TransactionService.getMonthlyStats: zero-filled month buckets and the
+// pivot of the grouped (year, month, type, account, sum) rows, fed with synthetic rows.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonthlyStatsBenchmark {
+
+    @Param({ "6", "24", "240" })
+    public int months;
+
+    private TransactionService service;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        to = LocalDate.of(2026, 6, 30);
+        List<Object[]> rows = new ArrayList<>();
+        YearMonth month = YearMonth.from(to).minusMonths(months - 1L);
+        for (int i = 0; i < months; i++, month = month.plusMonths(1)) {
+            for (TransactionType type : TransactionType.values()) {
+                for (AccountType account : AccountType.values()) {
+                    rows.add(new Object[] { month.getYear(), month.getMonthValue(), type, account,
+                            1000.0 + i * 37.5 });
+                }
+            }
+        }
+
+        TransactionRepository repository = (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(), new Class<?>[] { TransactionRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sumAmountByMonthTypeAndAccount")) {
+                        return rows;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = new TransactionService(repository, null, null, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> monthlyStats() {
+        return service.getMonthlyStats(months, null, to);
+    }
+}
@@ -0,0 +1,162 @@
+package com.apedo.gestion_eglise.bench;
+
+import com.apedo.gestion_eglise.entities.AccountType;
+import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.entities.Transaction;
+import com.apedo.gestion_eglise.entities.TransactionType;
+import com.apedo.gestion_eglise.payload.EventSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the list endpoints. Events are measured without images, with image URLs
+// (current API) and with inline Base64 images (the payloads served before the blob store).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private static final int IMAGES_PER_EVENT = 3;
+    private static final int INLINE_IMAGE_BYTES = 150 * 1024;
+
+    @Param({ "100", "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Member> members;
+    private List<Transaction> transactions;
+    private List<Event> eventsWithoutImages;
+    private List<Event> eventsWithImageUrls;
+    private List<Event> eventsWithInlineImages;
+    private List<EventSummary> eventSummaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchSupport.objectMapper();
+        Random random = new Random(42);
+
+        members = new ArrayList<>();
+        transactions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(member(i));
+            transactions.add(transaction(i, random));
+        }
+
+        byte[] image = new byte[INLINE_IMAGE_BYTES];
+        random.nextBytes(image);
+        String inline = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image);
+        int eventCount = Math.max(1, size / 10);
+        eventsWithoutImages = new ArrayList<>();
+        eventsWithImageUrls = new ArrayList<>();
+        eventsWithInlineImages = new ArrayList<>();
+        eventSummaries = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            eventsWithoutImages.add(event(i));
+
+            Event withUrls = event(i);
+            Event withInline = event(i);
+            for (int j = 0; j < IMAGES_PER_EVENT; j++) {
+                withUrls.getImages().add("http://localhost:8080/api/events/" + i + "/images/"
+                        + String.format("%064x", (long) i * IMAGES_PER_EVENT + j));
+                withInline.getImages().add(inline);
+            }
+            eventsWithImageUrls.add(withUrls);
+            eventsWithInlineImages.add(withInline);
+
+            EventSummary summary = new EventSummary((long) i, "Culte " + i, LocalDate.of(2026, 1, 1).plusDays(i),
+                    LocalTime.of(9, 0), "Culte", "Temple", "Description de l'événement " + i, IMAGES_PER_EVENT,
+                    String.format("%064x", i));
+            summary.setCoverImage(withUrls.getImages().get(0));
+            eventSummaries.add(summary);
+        }
+    }
+
+    @Benchmark
+    public byte[] members() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(members);
+    }
+
+    @Benchmark
+    public byte[] transactions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] eventsWithoutImages() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventsWithoutImages);
+    }
+
+    @Benchmark
+    public byte[] eventsWithImageUrls() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventsWithImageUrls);
+    }
+
+    @Benchmark
+    public byte[] eventsWithInlineImages() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventsWithInlineImages);
+    }
+
+    @Benchmark
+    public byte[] eventSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventSummaries);
+    }
+
+    private static Member member(int i) {
+        Member member = new Member();
+        member.setId((long) i);
+        member.setFirstName("Prénom" + i);
+        member.setLastName("Nom" + i);
+        member.setMatricule("M" + (10000 + i));
+        member.setEmail("membre" + i + "@example.org");
+        member.setPhoneNumber("+228 90 00 " + String.format("%02d %02d", i / 100 % 100, i % 100));
+        member.setAddress("Quartier " + (i % 40) + ", Lomé");
+        member.setBirthDate(LocalDate.of(1960 + i % 50, 1 + i % 12, 1 + i % 28));
+        member.setGender(i % 2 == 0 ? "Homme" : "Femme");
+        member.setProfession("Profession " + (i % 25));
+        member.setMaritalStatus(i % 3 == 0 ? "Marié(e)" : "Célibataire");
+        member.setArrivalDate(LocalDate.of(2010 + i % 15, 1 + i % 12, 1));
+        member.setMemberGroup("Groupe " + (i % 8));
+        member.setStatus("Actif");
+        member.setAddedBy("admin@eglisemanager.com");
+        return member;
+    }
+
+    private static Transaction transaction(int i, Random random) {
+        Transaction transaction = new Transaction();
+        transaction.setId((long) i);
+        transaction.setDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+        transaction.setType(i % 3 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME);
+        transaction.setCategory(i % 3 == 0 ? "Entretien" : "Offrande");
+        transaction.setAmount(500.0 + random.nextInt(100000));
+        transaction.setAccount(i % 2 == 0 ? AccountType.CAISSE : AccountType.BANQUE);
+        transaction.setDescription("Transaction " + i);
+        transaction.setAddedBy("admin@eglisemanager.com");
+        return transaction;
+    }
+
+    private static Event event(int i) {
+        Event event = new Event();
+        event.setId((long) i);
+        event.setTitle("Culte " + i);
+        event.setDate(LocalDate.of(2026, 1, 1).plusDays(i));
+        event.setTime(LocalTime.of(9, 0));
+        event.setType("Culte");
+        event.setLocation("Temple");
+        event.setDescription("Description de l'événement " + i);
+        event.setOrganizer("Pasteur");
+        event.setPhotoCount(IMAGES_PER_EVENT);
+        event.setAddedBy("admin@eglisemanager.com");
+        return event;
+    }
+}
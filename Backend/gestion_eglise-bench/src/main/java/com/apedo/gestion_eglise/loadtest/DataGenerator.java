@@ -0,0 +1,225 @@
+package com.apedo.gestion_eglise.loadtest;
+
+import com.apedo.gestion_eglise.init.IdSequenceMigration;
+import com.apedo.gestion_eglise.services.BlobStoreService;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeds a database created by the application (start it once so Hibernate builds the schema)
+// with production-like volumes, loaded through COPY in chunks. Data is deterministic for a
+// given --seed, so two runs produce the same dataset.
+//
+//   java -cp benchmarks.jar com.apedo.gestion_eglise.loadtest.DataGenerator \
+//       --url jdbc:postgresql://localhost:5432/gestion_eglise_db --user postgres --password apedo \
+//       --members 100000 --transactions 2000000 --events 5000 --years 10 --blob-store ./data/blobs
+public class DataGenerator {
+    private static final int CHUNK = 50_000;
+    private static final int DISTINCT_IMAGES = 50;
+    private static final int IMAGES_PER_EVENT = 4;
+
+    private static final String[] FIRST_NAMES = { "Kossi", "Ama", "Komla", "Akossiwa", "Yao", "Afi", "Kodjo",
+            "Adjoa", "Mawuli", "Esi", "Elom", "Dela", "Sena", "Edem", "Enyonam", "Kafui", "Selom", "Yawa" };
+    private static final String[] LAST_NAMES = { "Agbeko", "Mensah", "Amegah", "Kpodar", "Dossou", "Lawson",
+            "Akakpo", "Adjovi", "Gbadoe", "Tchalla", "Ayite", "Sossou", "Attisso", "Komlan", "Apedo" };
+    private static final String[] GROUPS = { "Jeunesse", "Hommes", "Femmes", "Chorale", "Enfants", "Anciens" };
+    private static final String[] STATUSES = { "Actif", "Actif", "Actif", "Actif", "Inactif", "Nouveau" };
+    private static final String[] INCOME_CATEGORIES = { "Dîme", "Offrande", "Don", "Collecte spéciale" };
+    private static final String[] EXPENSE_CATEGORIES = { "Entretien", "Électricité", "Social", "Mission",
+            "Salaire", "Matériel" };
+    private static final String[] EVENT_TYPES = { "Culte", "Conférence", "Concert", "Retraite", "Mariage" };
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        long seed = args.getLong("seed", 42);
+        int members = args.getInt("members", 100_000);
+        int transactions = args.getInt("transactions", 2_000_000);
+        int events = args.getInt("events", 5_000);
+        int years = args.getInt("years", 10);
+
+        try (Connection connection = DriverManager.getConnection(
+                args.get("url", "jdbc:postgresql://localhost:5432/gestion_eglise_db"),
+                args.get("user", "postgres"), args.get("password", "apedo"))) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            LocalDate today = LocalDate.now();
+
+            long start = System.nanoTime();
+            seedMembers(connection, copy, new Random(seed), members, today);
+            report("members", members, start);
+
+            start = System.nanoTime();
+            seedTransactions(connection, copy, new Random(seed + 1), transactions, today.minusYears(years), today);
+            report("transactions", transactions, start);
+
+            start = System.nanoTime();
+            List<String> imageIds = seedImages(args.get("blob-store", "./data/blobs"), new Random(seed + 2));
+            seedEvents(connection, copy, new Random(seed + 3), events, imageIds, today.minusYears(years), today);
+            report("events", events, start);
+
+            resetSequences(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+        }
+    }
+
+    private static void seedMembers(Connection connection, CopyManager copy, Random random, int count,
+            LocalDate today) throws SQLException, java.io.IOException {
+        long firstId = nextId(connection, "members");
+        String sql = "COPY members (id, first_name, last_name, matricule, email, phone_number, address, birth_date, "
+                + "gender, profession, marital_status, arrival_date, baptism_date, member_group, status, added_by) "
+                + "FROM STDIN WITH (FORMAT csv)";
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String first = pick(random, FIRST_NAMES);
+            String last = pick(random, LAST_NAMES);
+            LocalDate birth = today.minusDays(365L * 5 + random.nextInt(365 * 75));
+            LocalDate arrival = today.minusDays(random.nextInt(365 * 30));
+            csv.append(firstId + i).append(',').append(first).append(',').append(last)
+                    .append(",M").append(100000 + i).append(',')
+                    .append(first.toLowerCase()).append('.').append(last.toLowerCase()).append(i)
+                    .append("@example.org,")
+                    .append("+228 9").append(random.nextInt(10)).append(' ').append(1000000 + random.nextInt(8999999))
+                    .append(",Quartier ").append(random.nextInt(200)).append(" Lomé,")
+                    .append(birth).append(',').append(random.nextBoolean() ? "Homme" : "Femme")
+                    .append(",Profession ").append(random.nextInt(60)).append(',')
+                    .append(random.nextInt(3) == 0 ? "Marié(e)" : "Célibataire").append(',')
+                    .append(arrival).append(',')
+                    .append(random.nextInt(3) == 0 ? arrival.plusDays(random.nextInt(700)).toString() : "").append(',')
+                    .append(pick(random, GROUPS)).append(',').append(pick(random, STATUSES))
+                    .append(",generator\n");
+            if ((i + 1) % CHUNK == 0) {
+                flush(copy, sql, csv);
+            }
+        }
+        flush(copy, sql, csv);
+    }
+
+    private static void seedTransactions(Connection connection, CopyManager copy, Random random, int count,
+            LocalDate from, LocalDate to) throws SQLException, java.io.IOException {
+        long firstId = nextId(connection, "transactions");
+        String sql = "COPY transactions (id, date, type, category, amount, account, description, reference, added_by) "
+                + "FROM STDIN WITH (FORMAT csv)";
+        int days = (int) (to.toEpochDay() - from.toEpochDay());
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            boolean income = random.nextInt(100) < 65;
+            csv.append(firstId + i).append(',').append(from.plusDays(random.nextInt(days + 1))).append(',')
+                    .append(income ? "INCOME" : "EXPENSE").append(',')
+                    .append(pick(random, income ? INCOME_CATEGORIES : EXPENSE_CATEGORIES)).append(',')
+                    .append(100 * (5 + random.nextInt(2000))).append(',')
+                    .append(random.nextInt(100) < 70 ? "CAISSE" : "BANQUE")
+                    .append(",Opération générée ").append(i)
+                    .append(",REF-").append(i).append(",generator\n");
+            if ((i + 1) % CHUNK == 0) {
+                flush(copy, sql, csv);
+            }
+        }
+        flush(copy, sql, csv);
+    }
+
+    // A small pool of distinct pictures: the blob store is content-addressed, so events
+    // sharing a picture share the file, as re-uploaded photos do in production.
+    private static List<String> seedImages(String blobStorePath, Random random) throws Exception {
+        BlobStoreService blobStore = new BlobStoreService();
+        Field path = BlobStoreService.class.getDeclaredField("blobStorePath");
+        path.setAccessible(true);
+        path.set(blobStore, blobStorePath);
+        Method init = BlobStoreService.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(blobStore);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_IMAGES; i++) {
+            // JPEG magic bytes followed by noise, ~200 KB like a resized phone photo
+            byte[] image = new byte[150_000 + random.nextInt(100_000)];
+            random.nextBytes(image);
+            image[0] = (byte) 0xFF;
+            image[1] = (byte) 0xD8;
+            image[2] = (byte) 0xFF;
+            ids.add(blobStore.store(image));
+        }
+        return ids;
+    }
+
+    private static void seedEvents(Connection connection, CopyManager copy, Random random, int count,
+            List<String> imageIds, LocalDate from, LocalDate to) throws SQLException, java.io.IOException {
+        long firstId = nextId(connection, "events");
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay());
+        StringBuilder events = new StringBuilder();
+        StringBuilder refs = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            int photos = random.nextInt(IMAGES_PER_EVENT + 1);
+            String type = pick(random, EVENT_TYPES);
+            events.append(id).append(',').append(type).append(' ').append(i).append(',')
+                    .append(from.plusDays(random.nextInt(days + 1))).append(',')
+                    .append(LocalTime.of(8 + random.nextInt(10), random.nextBoolean() ? 0 : 30)).append(',')
+                    .append(type).append(",Temple ").append(random.nextInt(5))
+                    .append(",\"Programme détaillé de l'événement ").append(i)
+                    .append(". Tous les membres sont invités à y participer.\",Pasteur,")
+                    .append(50 + random.nextInt(500)).append(',').append(10000 * random.nextInt(50)).append(',')
+                    .append(photos).append(",generator\n");
+            for (int p = 0; p < photos; p++) {
+                refs.append(id).append(',').append(p).append(',')
+                        .append(imageIds.get(random.nextInt(imageIds.size()))).append('\n');
+            }
+        }
+        flush(copy, "COPY events (id, title, date, time, type, location, description, organizer, max_participants, "
+                + "budget, photo_count, added_by) FROM STDIN WITH (FORMAT csv)", events);
+        flush(copy, "COPY event_image_refs (event_id, position, image_id) FROM STDIN WITH (FORMAT csv)", refs);
+    }
+
+    // Ids are written explicitly (the column default would burn a pooled block of 50 per row)
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Same rule as IdSequenceMigration.alignSequence: the next pooled block must start above the data
+    private static void resetSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            int block = IdSequenceMigration.ALLOCATION_SIZE;
+            for (String table : new String[] { "members", "transactions", "events" }) {
+                String floor = "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + " + block;
+                statement.execute("SELECT setval('" + table + "_seq', " + floor + ", false) WHERE (SELECT CASE "
+                        + "WHEN is_called THEN last_value + " + block
+                        + " ELSE last_value END FROM " + table + "_seq) < " + floor);
+            }
+        }
+    }
+
+    private static void flush(CopyManager copy, String sql, StringBuilder csv) throws SQLException,
+            java.io.IOException {
+        if (csv.length() > 0) {
+            copy.copyIn(sql, new StringReader(csv.toString()));
+            csv.setLength(0);
+        }
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void report(String table, int rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%-13s %,10d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,64 @@
+package com.apedo.gestion_eglise.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-worker latency samples; workers never share one, results are merged once the run is over
+final class LatencyRecorder {
+    private final Map<String, Samples> byEndpoint = new LinkedHashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        byEndpoint.computeIfAbsent(endpoint, k -> new Samples()).add(nanos, error);
+    }
+
+    void mergeInto(LatencyRecorder target) {
+        byEndpoint.forEach((endpoint, samples) -> target.byEndpoint
+                .computeIfAbsent(endpoint, k -> new Samples()).addAll(samples));
+    }
+
+    Map<String, Samples> byEndpoint() {
+        return byEndpoint;
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        private void add(long value, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.nanos[i], false);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int errors() {
+            return errors;
+        }
+
+        // Nearest-rank percentile in milliseconds; sorts in place, call after the run
+        double percentileMs(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(nanos, 0, count);
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return nanos[Math.max(0, Math.min(count, rank) - 1)] / 1e6;
+        }
+    }
+}
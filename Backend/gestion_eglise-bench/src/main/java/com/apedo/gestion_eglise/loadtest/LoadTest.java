@@ -0,0 +1,240 @@
+package com.apedo.gestion_eglise.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Replays the mixed workload of the web client against a running instance and reports
+// throughput and p50/p95/p99 latencies per endpoint. Each worker is a closed loop: it
+// sends the next scenario as soon as the previous one answered.
+//
+//   java -cp benchmarks.jar com.apedo.gestion_eglise.loadtest.LoadTest \
+//       --base http://localhost:8080/api --concurrency 50 --warmup 30 --duration 120 --out results.csv
+//
+// The weights default to a typical weekday: mostly dashboard and member list views, a
+// public landing page hit by visitors, occasional logins and treasury entries.
+public class LoadTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String base;
+    private final String email;
+    private final String password;
+    private final AtomicReference<String> token = new AtomicReference<>();
+    private final ReentrantLock loginLock = new ReentrantLock();
+    private final String[] scenarios;
+    private final int[] cumulativeWeights;
+
+    LoadTest(Args args) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.base = args.get("base", "http://localhost:8080/api");
+        this.email = args.get("email", "admin@eglisemanager.com");
+        this.password = args.get("password", "admin123");
+
+        // --mix dashboard=30,members=30,landing=25,login=5,transaction=10
+        String[] entries = args.get("mix", "dashboard=30,members=30,landing=25,login=5,transaction=10").split(",");
+        this.scenarios = new String[entries.length];
+        this.cumulativeWeights = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] entry = entries[i].split("=");
+            scenarios[i] = entry[0].trim();
+            total += Integer.parseInt(entry[1].trim());
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        LoadTest test = new LoadTest(args);
+        int concurrency = args.getInt("concurrency", 50);
+        int warmup = args.getInt("warmup", 30);
+        int duration = args.getInt("duration", 120);
+
+        test.login(new LatencyRecorder());
+        if (warmup > 0) {
+            System.out.printf("Warm-up: %d s with %d workers%n", warmup, concurrency);
+            test.run(concurrency, warmup);
+        }
+        System.out.printf("Measuring: %d s with %d workers%n", duration, concurrency);
+        LatencyRecorder results = test.run(concurrency, duration);
+        report(results, duration, args.get("out", null));
+    }
+
+    private LatencyRecorder run(int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<LatencyRecorder>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        runScenario(pickScenario(), recorder);
+                    }
+                    return recorder;
+                }));
+            }
+        }
+        LatencyRecorder merged = new LatencyRecorder();
+        for (Future<LatencyRecorder> worker : workers) {
+            worker.get().mergeInto(merged);
+        }
+        return merged;
+    }
+
+    private String pickScenario() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private void runScenario(String scenario, LatencyRecorder recorder) {
+        String bearer = token.get();
+        try {
+            switch (scenario) {
+                case "dashboard" -> timed("GET /dashboard", get("/dashboard", bearer), bearer, recorder);
+                case "members" -> timed("GET /members/page", get("/members/page?size=50", bearer), bearer, recorder);
+                case "landing" -> timed("GET /public/landing", publicGet("/public/landing"), bearer, recorder);
+                case "login" -> login(recorder);
+                case "transaction" -> timed("POST /transactions", post("/transactions", transactionBody(), bearer),
+                        bearer, recorder);
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+        } catch (IOException e) {
+            recorder.record(scenario + " (I/O)", 0, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void timed(String endpoint, HttpRequest request, String bearer, LatencyRecorder recorder)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        recorder.record(endpoint, System.nanoTime() - start, handleStatus(response.statusCode(), bearer));
+    }
+
+    // Returns true for an error. An expired access token triggers one new login shared by every
+    // worker: those that saw the same stale token skip it once another worker has replaced it.
+    private boolean handleStatus(int status, String bearer) {
+        if (status == 401) {
+            try {
+                renewToken(bearer);
+            } catch (IOException e) {
+                // next scenario retries
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return status >= 400;
+    }
+
+    // A lock rather than synchronized: workers are virtual threads and login blocks on I/O
+    private void renewToken(String stale) throws IOException, InterruptedException {
+        loginLock.lock();
+        try {
+            if (stale == null || stale.equals(token.get())) {
+                login(new LatencyRecorder());
+            }
+        } finally {
+            loginLock.unlock();
+        }
+    }
+
+    private void login(LatencyRecorder recorder) throws IOException, InterruptedException {
+        String body = MAPPER.writeValueAsString(Map.of("email", email, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder.record("POST /auth/login", System.nanoTime() - start, response.statusCode() != 200);
+        if (response.statusCode() == 200) {
+            JsonNode json = MAPPER.readTree(response.body());
+            token.set(json.get("token").asText());
+        } else if (token.get() == null) {
+            throw new IllegalStateException("Login failed (" + response.statusCode() + "): " + response.body());
+        }
+    }
+
+    private String transactionBody() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return MAPPER.writeValueAsString(Map.of(
+                "date", LocalDate.now().toString(),
+                "type", "INCOME",
+                "category", "Offrande",
+                "amount", 100 * (5 + random.nextInt(500)),
+                "account", "CAISSE",
+                "description", "Test de charge"));
+    }
+
+    private HttpRequest get(String path, String bearer) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Authorization", "Bearer " + bearer)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest publicGet(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, String bearer) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Authorization", "Bearer " + bearer)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static void report(LatencyRecorder results, int seconds, String out) throws IOException {
+        String header = String.format("%-30s %9s %7s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        System.out.println(header);
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,requests,errors,rps,p50_ms,p95_ms,p99_ms,max_ms");
+        results.byEndpoint().forEach((endpoint, samples) -> {
+            double rps = samples.count() / (double) seconds;
+            double p50 = samples.percentileMs(50);
+            double p95 = samples.percentileMs(95);
+            double p99 = samples.percentileMs(99);
+            double max = samples.percentileMs(100);
+            System.out.printf("%-30s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint, samples.count(), samples.errors(), rps, p50, p95, p99, max);
+            csv.add(String.format(java.util.Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    endpoint, samples.count(), samples.errors(), rps, p50, p95, p99, max));
+        });
+        if (out != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(out)))) {
+                csv.forEach(writer::println);
+            }
+        }
+    }
+}
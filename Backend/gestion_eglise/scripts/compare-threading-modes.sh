@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Throughput of the platform-thread and virtual-thread modes under the same mixed workload:
+# runs scripts/load-test.sh once per mode (VIRTUAL_THREADS=false, then true) against the same
+# seeded database and prints the totals side by side. Use a scratch database.
+#
+#   (cd .. && mvn -q package -DskipTests)
+#   scripts/compare-threading-modes.sh [concurrency] [duration-seconds]
+#
+# SKIP_SEED=1 reuses an already seeded database; MEMBERS, TRANSACTIONS and EVENTS size the seed.
+# Per-endpoint results land in target/threading-platform.csv and target/threading-virtual.csv.
+set -euo pipefail
+
+CONCURRENCY=${1:-200}
+DURATION=${2:-120}
+
+VIRTUAL_THREADS=false OUT=target/threading-platform.csv scripts/load-test.sh "$CONCURRENCY" "$DURATION"
+VIRTUAL_THREADS=true SKIP_SEED=1 OUT=target/threading-virtual.csv scripts/load-test.sh "$CONCURRENCY" "$DURATION"
+
+# Totals over every endpoint; percentiles are those of the slowest endpoint
+for mode in platform virtual; do
+    awk -F, -v mode="$mode" 'NR > 1 { n += $2; err += $3; rps += $4; if ($6 > p95) p95 = $6; if ($7 > p99) p99 = $7 }
+        END { printf "%-9s %9d requests %7d errors %9.1f req/s   worst p95 %8.1f ms   worst p99 %8.1f ms\n",
+              mode, n, err, rps, p95, p99 }' "target/threading-$mode.csv"
+done
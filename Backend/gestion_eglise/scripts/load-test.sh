@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# End-to-end load test: seeds the database with production-like volumes, starts the packaged
+# jar and replays the mixed web workload against it. Use a scratch database: the generator
+# appends rows and the workload creates transactions.
+#
+#   (cd .. && mvn -q package -DskipTests)
+#   scripts/load-test.sh [concurrency] [duration-seconds]
+#
+# SKIP_SEED=1 reuses an already seeded database. Results land in target/loadtest-results.csv,
+# or in the file named by OUT.
+set -euo pipefail
+
+CONCURRENCY=${1:-50}
+DURATION=${2:-120}
+PORT=${PORT:-8089}
+BASE="http://localhost:${PORT}/api"
+DB_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/gestion_eglise_db}
+DB_USER=${SPRING_DATASOURCE_USERNAME:-postgres}
+DB_PASSWORD=${SPRING_DATASOURCE_PASSWORD:-apedo}
+BLOBS=${BLOB_STORE_PATH:-./data/blobs}
+JAR=$(ls target/gestion_eglise-*-exec.jar | head -1)
+BENCH=../gestion_eglise-bench/target/benchmarks.jar
+
+# Logins are part of the mix: lift the brute-force throttling for the run
+start_app() {
+    java -jar "$JAR" --server.port="$PORT" \
+        --app.loginRate.emailCapacity=100000 --app.loginRate.emailPerMinute=100000 \
+        --app.loginRate.ipCapacity=100000 --app.loginRate.ipPerMinute=100000 \
+        >> target/loadtest-app.log 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        curl -s -o /dev/null "$BASE/public/stats" && return
+        sleep 1
+    done
+}
+# Waits for the instance to stop so a following run can take the port
+trap 'kill $APP_PID 2>/dev/null; wait $APP_PID 2>/dev/null || true' EXIT
+
+start_app
+
+# Seeded once Hibernate has created the schema, then restarted so no cache predates the data
+if [ -z "${SKIP_SEED:-}" ]; then
+    java -cp "$BENCH" com.apedo.gestion_eglise.loadtest.DataGenerator \
+        --url "$DB_URL" --user "$DB_USER" --password "$DB_PASSWORD" --blob-store "$BLOBS" \
+        --members "${MEMBERS:-100000}" --transactions "${TRANSACTIONS:-2000000}" --events "${EVENTS:-5000}"
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    start_app
+fi
+
+java -cp "$BENCH" com.apedo.gestion_eglise.loadtest.LoadTest \
+    --base "$BASE" --email "${ADMIN_EMAIL:-admin@eglisemanager.com}" --password "${ADMIN_PASSWORD:-admin123}" \
+    --concurrency "$CONCURRENCY" --duration "$DURATION" --out "${OUT:-target/loadtest-results.csv}"
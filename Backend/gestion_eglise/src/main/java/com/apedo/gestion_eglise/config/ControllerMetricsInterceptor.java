@@ -0,0 +1,76 @@
+package com.apedo.gestion_eglise.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+// One timer per controller method (controller.requests{controller, method, status, exception})
+// with percentile histograms, plus the number of Hibernate statements each call issued.
+// Async requests (exports, SSE) are timed from the first dispatch to completion, without a
+// statement count.
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = ControllerMetricsInterceptor.class.getName() + ".start";
+    private static final String CONTROLLERS_PACKAGE = "com.apedo.gestion_eglise.controllers";
+
+    private final MeterRegistry registry;
+
+    public ControllerMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isController(handler) && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            QueryCountInspector.reset();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos) || !isController(handler) || request.isAsyncStarted()) {
+            return;
+        }
+        HandlerMethod method = (HandlerMethod) handler;
+        String controller = method.getBeanType().getSimpleName();
+        String name = method.getMethod().getName();
+
+        Timer.builder("controller.requests")
+                .description("Time spent in controller methods")
+                .tag("controller", controller)
+                .tag("method", name)
+                .tag("status", String.valueOf(response.getStatus()))
+                .tag("exception", ex != null ? ex.getClass().getSimpleName() : "none")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        // The statement counter is per thread: after an async re-dispatch it belongs to whatever
+        // request last ran on this thread, so only calls completed on their first dispatch count
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+        DistributionSummary.builder("controller.queries")
+                .description("Hibernate statements prepared per controller call")
+                .tag("controller", controller)
+                .tag("method", name)
+                .register(registry)
+                .record(QueryCountInspector.count());
+    }
+
+    private static boolean isController(Object handler) {
+        return handler instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().startsWith(CONTROLLERS_PACKAGE);
+    }
+}
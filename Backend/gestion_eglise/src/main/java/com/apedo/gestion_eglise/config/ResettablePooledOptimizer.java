@@ -0,0 +1,76 @@
+package com.apedo.gestion_eglise.config;
+
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.InitialValueAwareOptimizer;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledOptimizer;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hibernate's pooled optimizer, plus a way to drop the blocks of ids it holds in memory.
+// A restore writes rows with explicit ids and moves the sequences past them, but a block
+// reserved before the restore may still contain some of those ids: reset() makes every
+// generator fetch a fresh block from its sequence on the next insert.
+// Registered through hibernate.id.optimizer.pooled.preferred (all sequences have an allocation size > 1).
+public class ResettablePooledOptimizer implements Optimizer, InitialValueAwareOptimizer {
+    private static final AtomicLong EPOCH = new AtomicLong();
+
+    private final Class<?> returnClass;
+    private final int incrementSize;
+    private long initialValue = -1;
+    private PooledOptimizer delegate;
+    private long epoch;
+
+    public ResettablePooledOptimizer(Class<?> returnClass, int incrementSize) {
+        this.returnClass = returnClass;
+        this.incrementSize = incrementSize;
+        this.delegate = newDelegate();
+        this.epoch = EPOCH.get();
+    }
+
+    // Only affects this JVM: other instances sharing the database must be restarted after a restore
+    public static void reset() {
+        EPOCH.incrementAndGet();
+    }
+
+    @Override
+    public synchronized Serializable generate(AccessCallback callback) {
+        long current = EPOCH.get();
+        if (current != epoch) {
+            delegate = newDelegate();
+            epoch = current;
+        }
+        return delegate.generate(callback);
+    }
+
+    @Override
+    public synchronized IntegralDataTypeHolder getLastSourceValue() {
+        return delegate.getLastSourceValue();
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incrementSize;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+
+    @Override
+    public synchronized void injectInitialValue(long initialValue) {
+        this.initialValue = initialValue;
+        delegate.injectInitialValue(initialValue);
+    }
+
+    private PooledOptimizer newDelegate() {
+        PooledOptimizer optimizer = new PooledOptimizer(returnClass, incrementSize);
+        if (initialValue >= 1) {
+            optimizer.injectInitialValue(initialValue);
+        }
+        return optimizer;
+    }
+}
@@ -1,9 +1,16 @@
 package com.apedo.gestion_eglise.controllers;
 
+import com.apedo.gestion_eglise.entities.User;
+import com.apedo.gestion_eglise.exceptions.ServiceOverloadedException;
 import com.apedo.gestion_eglise.payload.JwtResponse;
 import com.apedo.gestion_eglise.payload.LoginRequest;
 import com.apedo.gestion_eglise.repositories.UserRepository;
 import com.apedo.gestion_eglise.security.JwtUtils;
+import com.apedo.gestion_eglise.security.LoginRateLimiter;
+import com.apedo.gestion_eglise.security.RefreshTokenService;
+import com.apedo.gestion_eglise.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +21,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -28,15 +37,27 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TokenRevocationService revocationService;
+
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         logger.info("Login attempt for email: '{}'", loginRequest.getEmail());
+        loginRateLimiter.check(loginRequest.getEmail(), request.getRemoteAddr());
 
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            loginRateLimiter.reset(loginRequest.getEmail());
             String jwt = jwtUtils.generateJwtToken(authentication);
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -46,11 +67,14 @@ public class AuthController {
             Long userId = user.getId();
             String fullName = user.getFullName();
 
-            return ResponseEntity.ok(new JwtResponse(jwt,
+            JwtResponse response = new JwtResponse(jwt,
                     userId,
                     userDetails.getUsername(),
                     fullName,
-                    role));
+                    role);
+            response.setExpiresIn(jwtUtils.getJwtExpirationMs());
+            response.setRefreshToken(refreshTokenService.issue(user));
+            return ResponseEntity.ok(response);
         } catch (org.springframework.security.core.AuthenticationException e) {
             logger.error("Authentication failed for user: '{}' - Error: {}", loginRequest.getEmail(), e.getMessage());
             return ResponseEntity.status(org.springframework.http.HttpStatus.UNAUTHORIZED)
@@ -60,6 +84,8 @@ public class AuthController {
                             put("error", e.getMessage());
                         }
                     });
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Internal error during login for user: '{}'", loginRequest.getEmail(), e);
             return ResponseEntity.status(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR)
@@ -70,4 +96,38 @@ public class AuthController {
                     });
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> body) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(body.get("refreshToken"));
+            User user = rotation.user();
+            JwtResponse response = new JwtResponse(jwtUtils.generateTokenFromUsername(user.getEmail()),
+                    user.getId(),
+                    user.getEmail(),
+                    user.getFullName(),
+                    "ROLE_" + user.getRole());
+            response.setExpiresIn(jwtUtils.getJwtExpirationMs());
+            response.setRefreshToken(rotation.refreshToken());
+            return ResponseEntity.ok(response);
+        } catch (org.springframework.security.core.AuthenticationException e) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) Map<String, String> body) {
+        if (body != null) {
+            refreshTokenService.revoke(body.get("refreshToken"));
+        }
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            Claims claims = jwtUtils.getValidatedClaims(authorization.substring(7));
+            if (claims != null) {
+                revocationService.revokeToken(claims.getId(), claims.getExpiration());
+            }
+        }
+        return ResponseEntity.ok(Map.of("message", "Déconnexion réussie"));
+    }
 }
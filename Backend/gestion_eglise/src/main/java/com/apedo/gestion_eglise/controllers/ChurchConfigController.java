@@ -2,6 +2,7 @@ package com.apedo.gestion_eglise.controllers;
 
 import com.apedo.gestion_eglise.entities.ChurchConfig;
 import com.apedo.gestion_eglise.repositories.ChurchConfigRepository;
+import com.apedo.gestion_eglise.services.PublicSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +15,9 @@ public class ChurchConfigController {
     @Autowired
     private ChurchConfigRepository repository;
 
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
+
     @GetMapping
     public ChurchConfig getConfig() {
         List<ChurchConfig> configs = repository.findAll();
@@ -30,6 +34,8 @@ public class ChurchConfigController {
         if (!configs.isEmpty()) {
             config.setId(configs.get(0).getId());
         }
-        return repository.save(config);
+        ChurchConfig saved = repository.save(config);
+        publicSnapshotService.invalidate();
+        return saved;
     }
 }
@@ -0,0 +1,21 @@
+package com.apedo.gestion_eglise.controllers;
+
+import com.apedo.gestion_eglise.payload.DashboardSummary;
+import com.apedo.gestion_eglise.services.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping
+    public ResponseEntity<DashboardSummary> getDashboard() {
+        return ResponseEntity.ok(dashboardService.getDashboard());
+    }
+}
@@ -1,13 +1,25 @@
 package com.apedo.gestion_eglise.controllers;
 
 import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.payload.EventSummary;
 import com.apedo.gestion_eglise.repositories.EventRepository;
-import com.apedo.gestion_eglise.services.NotificationService;
+import com.apedo.gestion_eglise.services.BlobStoreService;
+import com.apedo.gestion_eglise.services.EventImageService;
+import com.apedo.gestion_eglise.services.EventService;
+import com.apedo.gestion_eglise.services.PublicSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/events")
@@ -17,31 +29,58 @@ public class EventController {
     private EventRepository eventRepository;
 
     @Autowired
-    private NotificationService notificationService;
+    private EventService eventService;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private BlobStoreService blobStore;
+
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
 
     @GetMapping
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    public List<EventSummary> getAllEvents() {
+        return eventImageService.withCoverUrls(eventRepository.findSummaries(Limit.unlimited()));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEventById(@PathVariable Long id) {
         return eventRepository.findById(id)
+                .map(eventImageService::withImageUrls)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/images/{imageId}")
+    public ResponseEntity<Resource> getEventImage(@PathVariable Long id, @PathVariable String imageId,
+            WebRequest request) {
+        if (!BlobStoreService.isBlobId(imageId) || !eventRepository.hasImage(id, imageId)
+                || !blobStore.exists(imageId)) {
+            return ResponseEntity.notFound().build();
+        }
+        // The id is the content hash, so the bytes behind a URL never change
+        String etag = "\"" + imageId + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        // Range requests on a Resource body are handled by Spring MVC
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(blobStore.detectContentType(imageId)))
+                .body(new FileSystemResource(blobStore.resolve(imageId)));
+    }
+
     @PostMapping
     public Event createEvent(@RequestBody Event event) {
         String currentUser = org.springframework.security.core.context.SecurityContextHolder.getContext()
                 .getAuthentication().getName();
         event.setAddedBy(currentUser);
-        Event savedEvent = eventRepository.save(event);
-        notificationService.createNotification(
-                "Nouvel événement",
-                "Événement ajouté : " + savedEvent.getTitle(),
-                "EVENT");
-        return savedEvent;
+        event.setImageIds(eventImageService.storeAll(event.getImages()));
+        return eventImageService.withImageUrls(eventService.createEvent(event));
     }
 
     @PutMapping("/{id}")
@@ -57,9 +96,12 @@ public class EventController {
                     event.setOrganizer(eventDetails.getOrganizer());
                     event.setMaxParticipants(eventDetails.getMaxParticipants());
                     event.setBudget(eventDetails.getBudget());
-                    event.setImages(eventDetails.getImages());
+                    event.getImageIds().clear();
+                    event.getImageIds().addAll(eventImageService.storeAll(eventDetails.getImages()));
                     event.setPhotoCount(eventDetails.getPhotoCount());
-                    return ResponseEntity.ok(eventRepository.save(event));
+                    Event savedEvent = eventRepository.save(event);
+                    publicSnapshotService.invalidate();
+                    return ResponseEntity.ok(eventImageService.withImageUrls(savedEvent));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -70,6 +112,7 @@ public class EventController {
         return eventRepository.findById(id)
                 .map(event -> {
                     eventRepository.delete(event);
+                    publicSnapshotService.invalidate();
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
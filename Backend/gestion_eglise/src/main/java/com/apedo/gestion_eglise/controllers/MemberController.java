@@ -1,13 +1,21 @@
 package com.apedo.gestion_eglise.controllers;
 
 import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.payload.CursorPage;
+import com.apedo.gestion_eglise.payload.MemberImportReport;
+import com.apedo.gestion_eglise.payload.MemberQuery;
+import com.apedo.gestion_eglise.payload.MemberStats;
+import com.apedo.gestion_eglise.services.MemberImportService;
+import com.apedo.gestion_eglise.services.MemberSearchService;
 import com.apedo.gestion_eglise.services.MemberService;
-import com.apedo.gestion_eglise.services.NotificationService;
+import com.apedo.gestion_eglise.services.MemberStatsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,13 +25,35 @@ public class MemberController {
     MemberService memberService;
 
     @Autowired
-    private NotificationService notificationService;
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private MemberStatsService memberStatsService;
 
     @GetMapping
     public List<Member> getAllMembers() {
         return memberService.getAllMembers();
     }
 
+    @GetMapping("/page")
+    public CursorPage<Member> getMembersPage(MemberQuery query) {
+        return memberService.getMembersPage(query);
+    }
+
+    // Search-as-you-type: ranked matches on names, matricule, email and phone
+    @GetMapping("/search")
+    public List<Member> searchMembers(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return memberSearchService.search(query, limit);
+    }
+
+    @GetMapping("/stats")
+    public MemberStats getMemberStats() {
+        return memberStatsService.getStats();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Member> getMemberById(@PathVariable Long id) {
         return memberService.getMemberById(id)
@@ -36,12 +66,15 @@ public class MemberController {
         String currentUser = org.springframework.security.core.context.SecurityContextHolder.getContext()
                 .getAuthentication().getName();
         member.setAddedBy(currentUser);
-        Member savedMember = memberService.saveMember(member);
-        notificationService.createNotification(
-                "Nouveau membre",
-                "Un nouveau membre a été ajouté : " + savedMember.getFirstName() + " " + savedMember.getLastName(),
-                "MEMBER");
-        return savedMember;
+        return memberService.createMember(member);
+    }
+
+    // CSV (',' or ';') or XLSX with a header row; one summary notification for the whole file
+    @PostMapping("/import")
+    public MemberImportReport importMembers(@RequestParam("file") MultipartFile file) throws IOException {
+        String currentUser = org.springframework.security.core.context.SecurityContextHolder.getContext()
+                .getAuthentication().getName();
+        return memberImportService.importMembers(file, currentUser);
     }
 
     @PutMapping("/{id}")
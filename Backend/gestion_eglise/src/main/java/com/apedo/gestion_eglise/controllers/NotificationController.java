@@ -1,12 +1,13 @@
 package com.apedo.gestion_eglise.controllers;
 
-import com.apedo.gestion_eglise.entities.Notification;
+import com.apedo.gestion_eglise.payload.NotificationFeed;
 import com.apedo.gestion_eglise.services.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -17,8 +18,15 @@ public class NotificationController {
     private NotificationService notificationService;
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getNotifications(@RequestParam String email) {
-        return ResponseEntity.ok(notificationService.getNotificationsForUser(email));
+    public ResponseEntity<NotificationFeed> getNotifications(@RequestParam String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.getFeed(email, cursor, size));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return notificationService.subscribe(authentication.getName());
     }
 
     @PutMapping("/{id}/read")
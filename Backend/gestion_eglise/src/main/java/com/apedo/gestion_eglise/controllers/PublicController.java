@@ -1,80 +1,89 @@
 package com.apedo.gestion_eglise.controllers;
 
 import com.apedo.gestion_eglise.entities.Event;
-import com.apedo.gestion_eglise.entities.WorshipSchedule;
-import com.apedo.gestion_eglise.entities.ChurchConfig;
+import com.apedo.gestion_eglise.payload.EventSummary;
 import com.apedo.gestion_eglise.repositories.EventRepository;
-import com.apedo.gestion_eglise.repositories.MemberRepository;
-import com.apedo.gestion_eglise.repositories.ChurchConfigRepository;
-import com.apedo.gestion_eglise.services.WorshipScheduleService;
+import com.apedo.gestion_eglise.services.EventImageService;
+import com.apedo.gestion_eglise.services.PublicSnapshotService;
+import com.apedo.gestion_eglise.services.PublicSnapshotService.CachedJson;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/public")
 public class PublicController {
-
-    @Autowired
-    private MemberRepository memberRepository;
+    private static final CacheControl SNAPSHOT_CACHE = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
 
     @Autowired
     private EventRepository eventRepository;
 
     @Autowired
-    private WorshipScheduleService scheduleService;
+    private EventImageService eventImageService;
 
     @Autowired
-    private ChurchConfigRepository churchConfigRepository;
+    private PublicSnapshotService snapshotService;
+
+    @GetMapping("/landing")
+    public ResponseEntity<byte[]> getLanding(WebRequest request) {
+        return cachedJson(snapshotService.landing(), request);
+    }
 
     @GetMapping("/stats")
-    public Map<String, Object> getPublicStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalMembers", memberRepository.count());
-        stats.put("totalEvents", eventRepository.count());
-        return stats;
+    public ResponseEntity<byte[]> getPublicStats(WebRequest request) {
+        return cachedJson(snapshotService.stats(), request);
     }
 
     @GetMapping("/events/latest")
-    public List<Event> getLatestEvents() {
+    public ResponseEntity<byte[]> getLatestEvents(WebRequest request) {
         // Just return the last 3 events for the landing page
-        return eventRepository.findAll().stream()
-                .sorted((e1, e2) -> e2.getDate().compareTo(e1.getDate()))
-                .limit(3)
-                .collect(Collectors.toList());
+        return cachedJson(snapshotService.latestEvents(), request);
     }
 
     @GetMapping("/schedules")
-    public List<WorshipSchedule> getPublicSchedules() {
-        return scheduleService.getAllSchedules();
+    public ResponseEntity<byte[]> getPublicSchedules(WebRequest request) {
+        return cachedJson(snapshotService.schedules(), request);
     }
 
     @GetMapping("/church-info")
-    public ChurchConfig getChurchInfo() {
-        return churchConfigRepository.findAll().stream().findFirst()
-                .orElse(new ChurchConfig(null, "Temple Emmanuel", "Lomé, Togo", "+228 XX XX XX XX",
-                        "contact@temple-emmanuel.org"));
+    public ResponseEntity<byte[]> getChurchInfo(WebRequest request) {
+        return cachedJson(snapshotService.churchInfo(), request);
     }
 
     @GetMapping("/events")
-    public List<Event> getAllPublicEvents() {
-        return eventRepository.findAll().stream()
-                .sorted((e1, e2) -> e2.getDate().compareTo(e1.getDate()))
-                .collect(Collectors.toList());
+    public List<EventSummary> getAllPublicEvents() {
+        return eventImageService.withCoverUrls(eventRepository.findSummaries(Limit.unlimited()));
     }
 
     @GetMapping("/events/{id}")
     public ResponseEntity<Event> getPublicEventById(@PathVariable Long id) {
         Optional<Event> event = eventRepository.findById(id);
-        return event.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return event.map(eventImageService::withImageUrls)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<byte[]> cachedJson(CachedJson json, WebRequest request) {
+        if (request.checkNotModified(json.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.etag()).cacheControl(SNAPSHOT_CACHE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(json.etag())
+                .cacheControl(SNAPSHOT_CACHE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
     }
 }
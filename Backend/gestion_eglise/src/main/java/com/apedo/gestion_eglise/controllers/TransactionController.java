@@ -1,12 +1,17 @@
 package com.apedo.gestion_eglise.controllers;
 
+import com.apedo.gestion_eglise.entities.PeriodClosing;
 import com.apedo.gestion_eglise.entities.Transaction;
+import com.apedo.gestion_eglise.payload.TransactionPage;
+import com.apedo.gestion_eglise.payload.TransactionQuery;
 import com.apedo.gestion_eglise.services.TransactionService;
-import com.apedo.gestion_eglise.services.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -17,25 +22,23 @@ import java.util.Map;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final NotificationService notificationService;
 
     @GetMapping
     public List<Transaction> getAllTransactions() {
         return transactionService.getAllTransactions();
     }
 
+    @GetMapping("/ledger")
+    public TransactionPage getLedger(TransactionQuery query) {
+        return transactionService.getLedgerPage(query);
+    }
+
     @PostMapping
     public Transaction createTransaction(@RequestBody Transaction transaction) {
         String currentUser = org.springframework.security.core.context.SecurityContextHolder.getContext()
                 .getAuthentication().getName();
         transaction.setAddedBy(currentUser);
-        Transaction saved = transactionService.saveTransaction(transaction);
-        notificationService.createNotification(
-                "Nouvelle transaction",
-                "Une transaction de " + saved.getAmount() + " (" + saved.getType() +
-                        ") a été enregistrée.",
-                "FINANCE");
-        return saved;
+        return transactionService.saveTransaction(transaction);
     }
 
     @GetMapping("/stats")
@@ -44,7 +47,41 @@ public class TransactionController {
     }
 
     @GetMapping("/monthly-stats")
-    public List<Map<String, Object>> getMonthlyStats() {
-        return transactionService.getMonthlyStats();
+    public List<Map<String, Object>> getMonthlyStats(
+            @RequestParam(defaultValue = "6") int months,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return transactionService.getMonthlyStats(months, from, to);
+    }
+
+    @GetMapping("/closings")
+    public List<PeriodClosing> getClosings() {
+        return transactionService.getClosings();
+    }
+
+    @PostMapping("/closings")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public List<PeriodClosing> closePeriod(@RequestBody Map<String, String> body) {
+        String closingDate = body.get("closingDate");
+        if (closingDate == null || closingDate.isBlank()) {
+            throw new IllegalArgumentException("La date de clôture est requise.");
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(closingDate.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date de clôture invalide : " + closingDate);
+        }
+        String currentUser = org.springframework.security.core.context.SecurityContextHolder.getContext()
+                .getAuthentication().getName();
+        return transactionService.closePeriod(date, currentUser);
+    }
+
+    @DeleteMapping("/closings/latest")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reopenLastPeriod() {
+        return transactionService.reopenLastPeriod()
+                .map(date -> ResponseEntity.ok(Map.of("reopened", date)))
+                .orElse(ResponseEntity.notFound().build());
     }
 }
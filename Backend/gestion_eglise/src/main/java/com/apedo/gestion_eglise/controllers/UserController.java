@@ -2,8 +2,13 @@ package com.apedo.gestion_eglise.controllers;
 
 import com.apedo.gestion_eglise.entities.User;
 import com.apedo.gestion_eglise.repositories.UserRepository;
+import com.apedo.gestion_eglise.payload.RestoreProgress;
 import com.apedo.gestion_eglise.services.BackupService;
+import com.apedo.gestion_eglise.services.RestoreService;
+import com.apedo.gestion_eglise.security.CustomUserDetailsService;
 import com.apedo.gestion_eglise.security.JwtUtils;
+import com.apedo.gestion_eglise.security.RefreshTokenService;
+import com.apedo.gestion_eglise.security.TokenRevocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +17,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -31,9 +42,21 @@ public class UserController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @Autowired
     private BackupService backupService;
 
+    @Autowired
+    private RestoreService restoreService;
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@RequestParam String email) {
         logger.info("Fetching user details for: '{}'", email);
@@ -61,12 +84,15 @@ public class UserController {
             user.setFullName(fullName);
             user.setEmail(newEmail);
             userRepository.save(user);
+            userDetailsService.evict(currentEmail);
+            userDetailsService.evict(newEmail);
 
             logger.info("User details updated successfully in DB for: '{}'", newEmail);
 
             // If email changed, we need a new token
             String newToken = null;
             if (currentEmail != null && !currentEmail.equalsIgnoreCase(newEmail)) {
+                revocationService.revokeSubject(currentEmail);
                 newToken = jwtUtils.generateTokenFromUsername(newEmail);
                 logger.info("Generated new token for updated email: '{}'", newEmail);
             }
@@ -129,8 +155,14 @@ public class UserController {
             if (passwordEncoder.matches(currentPassword, user.getPassword())) {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 userRepository.save(user);
+                userDetailsService.evict(user.getEmail());
+                // Every other session ends; the caller gets a fresh pair to stay logged in
+                revocationService.revokeSubject(user.getEmail());
+                refreshTokenService.revokeAll(user.getId());
                 logger.info("Password successfully changed for user: '{}'", email);
-                return ResponseEntity.ok(Map.of("message", "Mot de passe changé avec succès"));
+                return ResponseEntity.ok(Map.of("message", "Mot de passe changé avec succès",
+                        "token", jwtUtils.generateTokenFromUsername(user.getEmail()),
+                        "refreshToken", refreshTokenService.issue(user)));
             } else {
                 logger.warn("Password change failed: current password incorrect for user: '{}'", email);
                 return ResponseEntity.badRequest().body(Map.of("message", "Mot de passe actuel incorrect"));
@@ -176,19 +208,56 @@ public class UserController {
                         return ResponseEntity.badRequest()
                                 .body(Map.of("message", "Impossible de supprimer un administrateur."));
                     }
+                    refreshTokenService.deleteAll(user.getId());
                     userRepository.delete(user);
+                    userDetailsService.evict(user.getEmail());
+                    revocationService.revokeSubject(user.getEmail());
                     return ResponseEntity.ok(Map.of("message", "Utilisateur supprimé avec succès"));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/export-data")
-    public ResponseEntity<?> exportData() {
-        logger.info("Data export requested");
-        Map<String, Object> data = backupService.exportAllData();
+    public ResponseEntity<StreamingResponseBody> exportData(@RequestParam(defaultValue = "false") boolean gzip) {
+        logger.info("Data export requested (gzip={})", gzip);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    backupService.exportAllData(gzipOut);
+                }
+            } else {
+                backupService.exportAllData(out);
+            }
+        };
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=eglise_backup.json")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(data);
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + (gzip ? "eglise_backup.json.gz" : "eglise_backup.json"))
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping("/import-data")
+    public ResponseEntity<?> importData(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "merge") String mode) throws IOException {
+        if (!"merge".equalsIgnoreCase(mode) && !"replace".equalsIgnoreCase(mode)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Mode inconnu : " + mode));
+        }
+        logger.info("Data restore requested: file='{}', size={}, mode={}", file.getOriginalFilename(), file.getSize(),
+                mode);
+        Path tmp = Files.createTempFile("restore-", ".json");
+        file.transferTo(tmp);
+        try {
+            RestoreProgress progress = restoreService.startRestore(tmp, "replace".equalsIgnoreCase(mode));
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/import-data/{id}")
+    public ResponseEntity<RestoreProgress> getImportProgress(@PathVariable String id) {
+        return restoreService.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
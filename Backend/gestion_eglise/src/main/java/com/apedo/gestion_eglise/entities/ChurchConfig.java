@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ChurchConfig {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "church_config_seq")
+    @SequenceGenerator(name = "church_config_seq", sequenceName = "church_config_seq", allocationSize = 50)
     private Long id;
 
     private String churchName;
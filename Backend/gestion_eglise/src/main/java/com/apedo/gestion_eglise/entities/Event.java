@@ -9,13 +9,16 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date", columnList = "date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,9 +44,15 @@ public class Event {
 
     private Double budget;
 
+    // SHA-256 ids of the images in the blob store, in display order
     @ElementCollection
-    @CollectionTable(name = "event_images", joinColumns = @JoinColumn(name = "event_id"))
-    @Column(name = "image_data", columnDefinition = "TEXT")
+    @CollectionTable(name = "event_image_refs", joinColumns = @JoinColumn(name = "event_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "image_id", length = 64, nullable = false)
+    private java.util.List<String> imageIds = new java.util.ArrayList<>();
+
+    // Incoming Base64 images on write, image URLs on read; never persisted
+    @Transient
     private java.util.List<String> images = new java.util.ArrayList<>();
 
     private Integer photoCount = 0;
@@ -3,6 +3,7 @@ package com.apedo.gestion_eglise.entities;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,54 +11,76 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "members")
+@Table(name = "members", indexes = {
+        @Index(name = "idx_members_status", columnList = "status, id"),
+        @Index(name = "idx_members_group", columnList = "member_group, id"),
+        @Index(name = "idx_members_gender", columnList = "gender, id"),
+        @Index(name = "idx_members_arrival_date", columnList = "arrival_date, id"),
+        @Index(name = "idx_members_last_name", columnList = "last_name, id"),
+        @Index(name = "idx_members_first_name", columnList = "first_name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Member {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "members_seq")
+    @SequenceGenerator(name = "members_seq", sequenceName = "members_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
+    @Size(max = 255)
     private String firstName;
 
     @NotBlank
+    @Size(max = 255)
     private String lastName;
 
+    @Size(max = 255)
     private String matricule;
 
     @Email
+    @Size(max = 255)
     private String email;
 
+    @Size(max = 255)
     private String phoneNumber;
 
+    @Size(max = 255)
     private String address;
 
     private LocalDate birthDate;
 
+    @Size(max = 255)
     private String gender;
 
+    @Size(max = 255)
     private String profession;
 
+    @Size(max = 255)
     private String maritalStatus;
 
     private LocalDate marriageDate;
 
+    @Size(max = 255)
     private String marriagePlace;
 
     private LocalDate arrivalDate;
 
     private LocalDate baptismDate;
 
+    @Size(max = 255)
     private String baptismLocation;
 
     private LocalDate departureDate;
 
+    @Size(max = 255)
     private String departureReason;
 
+    @Size(max = 255)
     private String memberGroup; // Renamed from group to avoid SQL issues
 
+    @Size(max = 255)
     private String status; // 'Actif', 'Inactif', 'Nouveau'
     private String addedBy;
 
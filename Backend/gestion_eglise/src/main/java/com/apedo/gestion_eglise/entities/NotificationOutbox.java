@@ -0,0 +1,39 @@
+package com.apedo.gestion_eglise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Pending notification fan-out, written in the caller's transaction and
+// expanded into per-user notifications by NotificationOutboxWorker.
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_pending", columnList = "processed_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private String title;
+    private String message;
+    private String type; // MEMBER, FINANCE, EVENT
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+
+    public NotificationOutbox(String title, String message, String type) {
+        this.title = title;
+        this.message = message;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.apedo.gestion_eglise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "period_closings", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "closing_date", "account" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodClosing {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "period_closings_seq")
+    @SequenceGenerator(name = "period_closings_seq", sequenceName = "period_closings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate closingDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AccountType account;
+
+    // Cumulative totals from the first transaction up to closingDate (inclusive)
+    @Column(nullable = false)
+    private Double totalIncome;
+
+    @Column(nullable = false)
+    private Double totalExpense;
+
+    @Column(nullable = false)
+    private Double balance;
+
+    private String closedBy;
+
+    private LocalDateTime closedAt = LocalDateTime.now();
+}
@@ -0,0 +1,42 @@
+package com.apedo.gestion_eglise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Either one access token (jti) or every access token of a subject issued before
+// revokedAt. Rows are only useful until the tokens they cover expire, which keeps
+// the table small enough to be held in memory.
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(length = 36)
+    private String jti;
+
+    private String subject;
+
+    private LocalDateTime revokedAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public TokenRevocation(String jti, String subject, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.subject = subject;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -8,14 +8,24 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_type_account", columnList = "date, type, account"),
+        // Ledger keyset order (date DESC, id DESC), alone or after an equality filter
+        @Index(name = "idx_transactions_date_id", columnList = "date, id"),
+        @Index(name = "idx_transactions_type_date_id", columnList = "type, date, id"),
+        @Index(name = "idx_transactions_account_date_id", columnList = "account, date, id"),
+        @Index(name = "idx_transactions_category_date_id", columnList = "category, date, id"),
+        // Amount range filter, and an amount typed in the ledger search
+        @Index(name = "idx_transactions_amount", columnList = "amount")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.apedo.gestion_eglise.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -17,7 +18,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -43,6 +45,13 @@ public class User {
     @Column(name = "notify_events")
     private Boolean notifyEvents = true;
 
+    // Maintained in SQL only, by the notification outbox worker and the mark-as-read endpoints:
+    // never written by save(user), which would overwrite a concurrent increment with a stale value.
+    // NULL until the first notification (read through COALESCE).
+    @JsonIgnore
+    @Column(name = "unread_notifications", insertable = false, updatable = false)
+    private Long unreadNotifications;
+
     public User(String email, String fullName, String password, String role) {
         this.email = email;
         this.fullName = fullName;
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class WorshipSchedule {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worship_schedules_seq")
+    @SequenceGenerator(name = "worship_schedules_seq", sequenceName = "worship_schedules_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,7 @@
+package com.apedo.gestion_eglise.exceptions;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,81 @@
+package com.apedo.gestion_eglise.init;
+
+import com.apedo.gestion_eglise.services.EventImageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// One-shot move of the legacy Base64 rows of event_images into the blob store.
+// Each event is migrated in its own transaction; the legacy table is dropped once empty.
+@Component
+public class EventImageMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(EventImageMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Override
+    public void run(String... args) {
+        Boolean legacyTable = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('event_images') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(legacyTable)) {
+            return;
+        }
+
+        List<Long> eventIds = jdbcTemplate.queryForList("SELECT DISTINCT event_id FROM event_images", Long.class);
+        logger.info("Migrating images of {} events to the blob store", eventIds.size());
+        for (Long eventId : eventIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> migrateEvent(eventId));
+            } catch (Exception e) {
+                logger.error("Image migration failed for event {}: {}", eventId, e.getMessage());
+            }
+        }
+
+        Long remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_images", Long.class);
+        if (remaining != null && remaining == 0) {
+            jdbcTemplate.execute("DROP TABLE event_images");
+            logger.info("Legacy table event_images dropped");
+        } else {
+            logger.warn("{} legacy images could not be migrated, event_images kept", remaining);
+        }
+    }
+
+    private void migrateEvent(Long eventId) {
+        Integer start = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(position) + 1, 0) FROM event_image_refs WHERE event_id = ?", Integer.class,
+                eventId);
+        int[] position = { start != null ? start : 0 };
+        // The Postgres driver only uses a cursor when a fetch size is set and autocommit is off (we run
+        // inside the event's transaction): rows then arrive one at a time instead of the whole gallery
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(
+                    "SELECT image_data FROM event_images WHERE event_id = ?");
+            statement.setFetchSize(1);
+            statement.setLong(1, eventId);
+            return statement;
+        }, rs -> {
+            String data = rs.getString(1);
+            if (data == null || data.isBlank()) {
+                return;
+            }
+            String imageId = eventImageService.storeImage(data);
+            jdbcTemplate.update("INSERT INTO event_image_refs (event_id, position, image_id) VALUES (?, ?, ?)",
+                    eventId, position[0]++, imageId);
+        });
+        jdbcTemplate.update("DELETE FROM event_images WHERE event_id = ?", eventId);
+    }
+}
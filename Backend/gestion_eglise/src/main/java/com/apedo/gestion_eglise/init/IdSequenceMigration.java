@@ -0,0 +1,92 @@
+package com.apedo.gestion_eglise.init;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Moves the id columns from IDENTITY to the pooled sequences declared on the entities
+// (<table>_seq, 50 ids reserved per nextval), which is what lets Hibernate batch inserts.
+//
+// Runs before Hibernate starts, so existing identity columns are converted and every sequence
+// is past the stored ids before the first insert; and again once the schema exists, so tables
+// created by Hibernate on a fresh database also get the nextval default used by plain SQL inserts.
+// Every step is idempotent.
+@Component
+public class IdSequenceMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("users", "members", "transactions", "events",
+            "notifications", "notification_outbox", "worship_schedules", "church_config", "period_closings",
+            "refresh_tokens", "token_revocations");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void beforeHibernate() {
+        migrate();
+    }
+
+    @Override
+    public void run(String... args) {
+        migrate();
+    }
+
+    private void migrate() {
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                    + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            if (!tableExists(table)) {
+                continue;
+            }
+            Boolean identity = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                    + "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id' "
+                    + "AND is_identity = 'YES')", Boolean.class, table);
+            if (Boolean.TRUE.equals(identity)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+                logger.info("Identity column {}.id converted to sequence {}", table, sequence);
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+            alignSequence(table);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table + ".id");
+        }
+        // Sequence of the first partitioned notifications table, replaced by notifications_seq
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS notifications_part_id_seq");
+    }
+
+    // Moves the sequence forward so the next block of ids (nextval - 49 .. nextval) lies above
+    // every stored id. Never moves it back: a running Hibernate may still hold a block.
+    public void alignSequence(String table) {
+        String sequence = table + "_seq";
+        String floor = "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + " + ALLOCATION_SIZE;
+        jdbcTemplate.execute("SELECT setval('" + sequence + "', " + floor + ", false) "
+                + "WHERE (SELECT CASE WHEN is_called THEN last_value + " + ALLOCATION_SIZE + " ELSE last_value END "
+                + "FROM " + sequence + ") < " + floor);
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                Boolean.class, table));
+    }
+
+    // Hibernate validates the sequences (increment size) and may insert as soon as it is up,
+    // so the entity manager factory waits for the first migration pass
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependency() {
+            super(IdSequenceMigration.class);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.apedo.gestion_eglise.init;
+
+import com.apedo.gestion_eglise.services.MemberSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+// Installs the Postgres search indexes once the schema exists; searches made before that
+// (or on another database) use the in-memory index
+@Component
+public class MemberSearchMigration implements CommandLineRunner {
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Override
+    public void run(String... args) {
+        memberSearchService.installDatabaseSearch();
+    }
+}
@@ -0,0 +1,28 @@
+package com.apedo.gestion_eglise.init;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Fills users.unread_notifications for accounts created before the counter existed.
+// Only rows still NULL are touched, so this is a no-op after the first start.
+@Component
+public class NotificationCounterMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCounterMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int updated = jdbcTemplate.update("UPDATE users u SET unread_notifications = "
+                + "(SELECT COUNT(*) FROM notifications n WHERE n.user_id = u.id AND n.is_read = false) "
+                + "WHERE u.unread_notifications IS NULL");
+        if (updated > 0) {
+            logger.info("Unread notification counters initialized for {} users", updated);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.apedo.gestion_eglise.init;
+
+import com.apedo.gestion_eglise.services.NotificationRetentionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+// Converts notifications to a partitioned table the first time app.notificationPartitioning
+// is switched on, then lets the retention job create the upcoming months.
+@Component
+public class NotificationPartitionMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPartitionMigration.class);
+
+    @Value("${app.notificationPartitioning:false}")
+    private boolean partitioning;
+
+    @Autowired
+    private NotificationRetentionService retentionService;
+
+    @Override
+    public void run(String... args) {
+        if (!partitioning || retentionService.isPartitioned()) {
+            return;
+        }
+        try {
+            retentionService.convertToPartitioned();
+        } catch (Exception e) {
+            logger.error("Partitioning of notifications failed, keeping the plain table: {}", e.getMessage(), e);
+        }
+    }
+}
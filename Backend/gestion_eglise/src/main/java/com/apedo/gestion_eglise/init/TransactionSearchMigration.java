@@ -0,0 +1,39 @@
+package com.apedo.gestion_eglise.init;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Trigram indexes behind the ledger's free-text search (lower(column) LIKE '%text%').
+// JPA @Index cannot declare them; the B-tree keyset indexes are on the Transaction entity.
+// Without Postgres or pg_trgm the search still works, as a scan of the filtered rows.
+@Component
+public class TransactionSearchMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSearchMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String column : new String[] { "description", "beneficiary", "category" }) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_transactions_" + column + "_trgm "
+                        + "ON transactions USING gin (lower(" + column + ") gin_trgm_ops)");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Transaction search indexes unavailable: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // null when there is no further page
+    private Long totalCount; // only filled when explicitly requested
+}
@@ -0,0 +1,21 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Everything the dashboard page shows, in one response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummary {
+    private MemberStats members;
+    private long totalEvents;
+    private long eventsThisMonth;
+    private List<EventSummary> upcomingEvents;
+    private Map<String, Object> treasury; // same fields as /api/transactions/stats
+    private List<Map<String, Object>> monthlyStats; // last six months, as /api/transactions/monthly-stats
+}
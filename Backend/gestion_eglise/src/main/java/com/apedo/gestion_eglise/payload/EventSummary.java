@@ -0,0 +1,39 @@
+package com.apedo.gestion_eglise.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+public class EventSummary {
+    private Long id;
+    private String title;
+    private LocalDate date;
+    private LocalTime time;
+    private String type;
+    private String location;
+    private String description; // first characters only, for list cards
+    private Integer photoCount;
+
+    @JsonIgnore
+    private String coverImageId;
+
+    private String coverImage; // URL of the first image, null when the event has none
+
+    public EventSummary(Long id, String title, LocalDate date, LocalTime time, String type, String location,
+            String description, Integer photoCount, String coverImageId) {
+        this.id = id;
+        this.title = title;
+        this.date = date;
+        this.time = time;
+        this.type = type;
+        this.location = location;
+        this.description = description;
+        this.photoCount = photoCount;
+        this.coverImageId = coverImageId;
+    }
+}
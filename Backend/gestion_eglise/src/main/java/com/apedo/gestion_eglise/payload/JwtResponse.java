@@ -6,6 +6,8 @@ import lombok.Data;
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+    private long expiresIn; // access token lifetime in milliseconds
+    private String refreshToken;
     private Long id;
     private String email;
     private String fullName;
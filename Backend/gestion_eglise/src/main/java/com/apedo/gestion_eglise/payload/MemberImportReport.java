@@ -0,0 +1,28 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MemberImportReport {
+    private int totalRows;
+    private int imported;
+    private int rejected;
+    private List<RowError> errors = new ArrayList<>(); // capped, see errorsTruncated
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // line in the file, header being line 1
+        private String field; // null when the whole row is concerned
+        private String message;
+    }
+}
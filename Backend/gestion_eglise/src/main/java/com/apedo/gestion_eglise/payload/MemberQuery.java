@@ -0,0 +1,25 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class MemberQuery {
+    private String status;
+    private String memberGroup;
+    private String gender;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate arrivalFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate arrivalTo;
+
+    private String sort = "id"; // id, lastName, firstName
+    private String direction = "desc";
+    private String cursor;
+    private int size = 50;
+    private boolean includeTotal = false;
+}
@@ -0,0 +1,24 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Member demographics; in every map, members without a value are counted under "Non renseigné"
+@Data
+@NoArgsConstructor
+public class MemberStats {
+    private long total;
+    private long newThisMonth; // arrival date in the current month
+    private long baptised;
+    private long notBaptised;
+    private Map<String, Long> byStatus = new LinkedHashMap<>();
+    private Map<String, Long> byGroup = new LinkedHashMap<>();
+    private Map<String, Long> byGender = new LinkedHashMap<>();
+    private Map<String, Long> byMaritalStatus = new LinkedHashMap<>();
+    private Map<String, Long> byAgeBucket = new LinkedHashMap<>(); // 0-14, 15-34, 35-59, 60+
+    private LocalDateTime computedAt;
+}
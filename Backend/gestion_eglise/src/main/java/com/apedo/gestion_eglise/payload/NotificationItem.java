@@ -0,0 +1,20 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Feed row without the lazy User association
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationItem {
+    private Long id;
+    private String title;
+    private String message;
+    private String type;
+    private boolean read;
+    private LocalDateTime createdAt;
+}
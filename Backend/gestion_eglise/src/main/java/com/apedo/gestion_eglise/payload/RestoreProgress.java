@@ -0,0 +1,62 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Getter
+public class RestoreProgress {
+    private final String id;
+    private final String mode; // REPLACE or MERGE
+    private final long totalBytes;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Map<String, Long> rows = new ConcurrentHashMap<>();
+
+    private volatile String status = "RUNNING"; // RUNNING, DONE, FAILED
+    private volatile String phase = "VALIDATING"; // VALIDATING, LOADING, then APPLYING; the percent is per phase
+    private volatile long bytesRead;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    public RestoreProgress(String id, String mode, long totalBytes) {
+        this.id = id;
+        this.mode = mode;
+        this.totalBytes = totalBytes;
+    }
+
+    public int getPercent() {
+        return totalBytes > 0 ? (int) Math.min(100, bytesRead * 100 / totalBytes) : 0;
+    }
+
+    public void addRows(String table, int count) {
+        rows.merge(table, (long) count, Long::sum);
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    public void startLoading() {
+        this.bytesRead = 0;
+        this.phase = "LOADING";
+    }
+
+    // Staged rows are being copied into the live tables: the whole file has been read
+    public void startApplying() {
+        this.phase = "APPLYING";
+    }
+
+    public void finish() {
+        this.bytesRead = totalBytes;
+        this.status = "DONE";
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.status = "FAILED";
+        this.finishedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,21 @@
+package com.apedo.gestion_eglise.payload;
+
+import com.apedo.gestion_eglise.entities.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+    private List<Transaction> items;
+    private String nextCursor; // null when there is no further page
+    private Long totalCount; // only filled when explicitly requested
+    // Subtotals of the rows in this page
+    private double pageIncome;
+    private double pageExpense;
+    private double pageBalance;
+}
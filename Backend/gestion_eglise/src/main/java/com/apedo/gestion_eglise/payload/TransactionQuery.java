@@ -0,0 +1,25 @@
+package com.apedo.gestion_eglise.payload;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class TransactionQuery {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String type; // INCOME, EXPENSE
+    private String account; // CAISSE, BANQUE
+    private String category;
+    private Double minAmount;
+    private Double maxAmount;
+    private String search; // text in description, beneficiary or category; or a date, or an amount
+    private String cursor;
+    private int size = 50;
+    private boolean includeTotal = false;
+}
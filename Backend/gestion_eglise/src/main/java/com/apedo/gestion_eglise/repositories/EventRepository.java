@@ -1,9 +1,49 @@
 package com.apedo.gestion_eglise.repositories;
 
 import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.payload.EventSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+
+    @Query("SELECT new com.apedo.gestion_eglise.payload.EventSummary(" +
+            "e.id, e.title, e.date, e.time, e.type, e.location, SUBSTRING(e.description, 1, 200), e.photoCount, img) " +
+            "FROM Event e LEFT JOIN e.imageIds img ON INDEX(img) = 0 " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EventSummary> findSummaries(Limit limit);
+
+    @Query("SELECT new com.apedo.gestion_eglise.payload.EventSummary(" +
+            "e.id, e.title, e.date, e.time, e.type, e.location, SUBSTRING(e.description, 1, 200), e.photoCount, img) " +
+            "FROM Event e LEFT JOIN e.imageIds img ON INDEX(img) = 0 " +
+            "WHERE e.date >= :from ORDER BY e.date ASC, e.id ASC")
+    List<EventSummary> findUpcomingSummaries(LocalDate from, Limit limit);
+
+    long countByDateBetween(LocalDate from, LocalDate to);
+
+    @Query("SELECT COUNT(e) > 0 FROM Event e JOIN e.imageIds i WHERE e.id = :eventId AND i = :imageId")
+    boolean hasImage(Long eventId, String imageId);
+
+    // Image ids are fetched with their event: rows come ordered by event, so the stream still
+    // yields one complete event at a time, without a SELECT per event for its lazy collection
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.imageIds ORDER BY e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Event> streamAll();
+
+    @Query("SELECT DISTINCT i FROM Event e JOIN e.imageIds i")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<String> streamImageIds();
 }
@@ -0,0 +1,55 @@
+package com.apedo.gestion_eglise.repositories;
+
+import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.payload.MemberQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MemberSpecifications {
+
+    private MemberSpecifications() {
+    }
+
+    public static Specification<Member> withFilters(MemberQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (StringUtils.hasText(query.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), query.getStatus()));
+            }
+            if (StringUtils.hasText(query.getMemberGroup())) {
+                predicates.add(cb.equal(root.get("memberGroup"), query.getMemberGroup()));
+            }
+            if (StringUtils.hasText(query.getGender())) {
+                predicates.add(cb.equal(root.get("gender"), query.getGender()));
+            }
+            if (query.getArrivalFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("arrivalDate"), query.getArrivalFrom()));
+            }
+            if (query.getArrivalTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("arrivalDate"), query.getArrivalTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset predicate: rows strictly after (value, id) in the requested order
+    public static Specification<Member> after(String field, String value, Long id, boolean ascending) {
+        return (root, criteriaQuery, cb) -> {
+            Path<Long> idPath = root.get("id");
+            if ("id".equals(field)) {
+                return ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            }
+            Path<String> path = root.get(field);
+            Predicate sameValue = cb.equal(path, value);
+            if (ascending) {
+                return cb.or(cb.greaterThan(path, value), cb.and(sameValue, cb.greaterThan(idPath, id)));
+            }
+            return cb.or(cb.lessThan(path, value), cb.and(sameValue, cb.lessThan(idPath, id)));
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.apedo.gestion_eglise.repositories;
+
+import com.apedo.gestion_eglise.entities.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+}
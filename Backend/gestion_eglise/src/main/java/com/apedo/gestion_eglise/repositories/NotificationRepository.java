@@ -1,15 +1,37 @@
 package com.apedo.gestion_eglise.repositories;
 
 import com.apedo.gestion_eglise.entities.Notification;
-import com.apedo.gestion_eglise.entities.User;
+import com.apedo.gestion_eglise.payload.NotificationItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserOrderByCreatedAtDesc(User user);
+    @Query("SELECT new com.apedo.gestion_eglise.payload.NotificationItem(n.id, n.title, n.message, n.type, n.read, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationItem> findFeed(Long userId, Limit limit);
 
-    long countByUserAndRead(User user, boolean read);
+    @Query("SELECT new com.apedo.gestion_eglise.payload.NotificationItem(n.id, n.title, n.message, n.type, n.read, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationItem> findFeedAfter(Long userId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findUserIdById(Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markReadById(Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllReadByUserId(Long userId);
 }
@@ -0,0 +1,22 @@
+package com.apedo.gestion_eglise.repositories;
+
+import com.apedo.gestion_eglise.entities.PeriodClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PeriodClosingRepository extends JpaRepository<PeriodClosing, Long> {
+    @Query("SELECT MAX(p.closingDate) FROM PeriodClosing p")
+    Optional<LocalDate> findLastClosingDate();
+
+    List<PeriodClosing> findByClosingDate(LocalDate closingDate);
+
+    List<PeriodClosing> findAllByOrderByClosingDateDescAccountAsc();
+
+    void deleteByClosingDate(LocalDate closingDate);
+}
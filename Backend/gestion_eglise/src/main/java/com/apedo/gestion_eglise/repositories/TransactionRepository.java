@@ -1,28 +1,47 @@
 package com.apedo.gestion_eglise.repositories;
 
 import com.apedo.gestion_eglise.entities.Transaction;
-import com.apedo.gestion_eglise.entities.TransactionType;
-import com.apedo.gestion_eglise.entities.AccountType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     List<Transaction> findAllByOrderByDateDesc();
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.type = :type")
-    Double sumAmountByType(TransactionType type);
+    @Query("SELECT t.account, t.type, SUM(t.amount) FROM Transaction t GROUP BY t.account, t.type")
+    List<Object[]> sumAmountByAccountAndType();
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.type = :type AND t.account = :account")
-    Double sumAmountByTypeAndAccount(TransactionType type, AccountType account);
+    @Query("SELECT t.account, t.type, SUM(t.amount) FROM Transaction t WHERE t.date > :after " +
+            "GROUP BY t.account, t.type")
+    List<Object[]> sumAmountByAccountAndTypeAfter(LocalDate after);
 
-    @Query("SELECT MONTH(t.date) as month, YEAR(t.date) as year, SUM(t.amount) as total " +
+    @Query("SELECT t.account, t.type, SUM(t.amount) FROM Transaction t WHERE t.date <= :until " +
+            "GROUP BY t.account, t.type")
+    List<Object[]> sumAmountByAccountAndTypeUntil(LocalDate until);
+
+    @Query("SELECT t.account, t.type, SUM(t.amount) FROM Transaction t WHERE t.date > :after AND t.date <= :until " +
+            "GROUP BY t.account, t.type")
+    List<Object[]> sumAmountByAccountAndTypeBetween(LocalDate after, LocalDate until);
+
+    @Query("SELECT YEAR(t.date), MONTH(t.date), t.type, t.account, SUM(t.amount) " +
             "FROM Transaction t " +
-            "WHERE t.type = :type " +
-            "GROUP BY YEAR(t.date), MONTH(t.date) " +
-            "ORDER BY year DESC, month DESC")
-    List<Object[]> sumAmountByMonth(TransactionType type);
+            "WHERE t.date >= :from AND t.date <= :to " +
+            "GROUP BY YEAR(t.date), MONTH(t.date), t.type, t.account")
+    List<Object[]> sumAmountByMonthTypeAndAccount(LocalDate from, LocalDate to);
+
+    @Query("SELECT t FROM Transaction t ORDER BY t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transaction> streamAll();
 }
@@ -0,0 +1,130 @@
+package com.apedo.gestion_eglise.repositories;
+
+import com.apedo.gestion_eglise.entities.AccountType;
+import com.apedo.gestion_eglise.entities.Transaction;
+import com.apedo.gestion_eglise.entities.TransactionType;
+import com.apedo.gestion_eglise.payload.TransactionQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> withFilters(TransactionQuery query, TransactionType type,
+            AccountType account) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), query.getFrom()));
+            }
+            if (query.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), query.getTo()));
+            }
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (account != null) {
+                predicates.add(cb.equal(root.get("account"), account));
+            }
+            if (StringUtils.hasText(query.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), query.getCategory().trim()));
+            }
+            if (query.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), query.getMinAmount()));
+            }
+            if (query.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), query.getMaxAmount()));
+            }
+            if (StringUtils.hasText(query.getSearch())) {
+                String term = query.getSearch().trim();
+                // lower(column) LIKE '%text%' is what the trigram indexes on those columns serve
+                String pattern = "%" + term.toLowerCase(Locale.ROOT)
+                        .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                List<Predicate> matches = new ArrayList<>(List.of(
+                        cb.like(cb.lower(root.get("description")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("beneficiary")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("category")), pattern, '\\')));
+                // A date or an amount typed in the search box matches the date or the amount column
+                LocalDate[] dates = searchDateRange(term);
+                if (dates != null) {
+                    matches.add(cb.between(root.get("date"), dates[0], dates[1]));
+                }
+                Double amount = searchAmount(term);
+                if (amount != null) {
+                    matches.add(cb.equal(root.get("amount"), amount));
+                }
+                predicates.add(cb.or(matches.toArray(new Predicate[0])));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // First and last day covered by a date typed as 2024, 2024-03, 2024-03-15, 03/2024 or 15/03/2024
+    static LocalDate[] searchDateRange(String term) {
+        try {
+            if (term.matches("(19|20)\\d{2}")) {
+                Year year = Year.parse(term);
+                return new LocalDate[] { year.atDay(1), year.atMonth(12).atEndOfMonth() };
+            }
+            if (term.matches("\\d{4}-\\d{1,2}")) {
+                YearMonth month = YearMonth.parse(term, strict("uuuu-M"));
+                return new LocalDate[] { month.atDay(1), month.atEndOfMonth() };
+            }
+            if (term.matches("\\d{1,2}/\\d{4}")) {
+                YearMonth month = YearMonth.parse(term, strict("M/uuuu"));
+                return new LocalDate[] { month.atDay(1), month.atEndOfMonth() };
+            }
+            if (term.matches("\\d{4}-\\d{1,2}-\\d{1,2}")) {
+                LocalDate day = LocalDate.parse(term, strict("uuuu-M-d"));
+                return new LocalDate[] { day, day };
+            }
+            if (term.matches("\\d{1,2}/\\d{1,2}/\\d{4}")) {
+                LocalDate day = LocalDate.parse(term, strict("d/M/uuuu"));
+                return new LocalDate[] { day, day };
+            }
+        } catch (DateTimeParseException e) {
+            // not a date after all (month 13...)
+        }
+        return null;
+    }
+
+    // STRICT so that 31/02 is rejected instead of being moved to the end of February
+    private static DateTimeFormatter strict(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    // An amount as displayed by the app ("5 000", "5 000 FCFA") or typed ("5000", "5000,50")
+    static Double searchAmount(String term) {
+        String digits = term.toUpperCase(Locale.ROOT).replace("FCFA", "").replaceAll("[\\s\\u00A0\\u202F]", "")
+                .replace(',', '.');
+        if (!digits.matches("\\d+(\\.\\d+)?")) {
+            return null;
+        }
+        return Double.valueOf(digits);
+    }
+
+    // Keyset predicate for the ledger order (date DESC, id DESC): rows strictly before (date, id).
+    // The redundant date <= bound gives the index scan a start key instead of a filter.
+    public static Specification<Transaction> before(LocalDate date, Long id) {
+        return (root, criteriaQuery, cb) -> {
+            Path<LocalDate> datePath = root.get("date");
+            Path<Long> idPath = root.get("id");
+            return cb.and(cb.lessThanOrEqualTo(datePath, date),
+                    cb.or(cb.lessThan(datePath, date), cb.and(cb.equal(datePath, date), cb.lessThan(idPath, id))));
+        };
+    }
+}
@@ -2,6 +2,8 @@ package com.apedo.gestion_eglise.repositories;
 
 import com.apedo.gestion_eglise.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +15,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
 
     java.util.List<User> findByRole(String role);
+
+    @Query("SELECT COALESCE(u.unreadNotifications, 0) FROM User u WHERE u.id = :id")
+    long findUnreadNotificationsById(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE users SET unread_notifications = GREATEST(COALESCE(unread_notifications, 0) + :delta, 0) "
+            + "WHERE id = :id", nativeQuery = true)
+    void adjustUnreadNotifications(Long id, long delta);
 }
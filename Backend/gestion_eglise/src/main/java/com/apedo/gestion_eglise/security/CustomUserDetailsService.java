@@ -3,12 +3,16 @@ package com.apedo.gestion_eglise.security;
 import com.apedo.gestion_eglise.entities.User;
 import com.apedo.gestion_eglise.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CustomUserDetailsService.class);
@@ -16,24 +20,56 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Value("${app.principalCacheTtlMs:60000}")
+    private long cacheTtlMs;
+
+    @Value("${app.principalCacheMaxSize:10000}")
+    private int cacheMaxSize;
+
+    private record CachedPrincipal(UserDetails details, long expiresAt) {
+    }
+
+    // Principals resolved by AuthTokenFilter, keyed by email. Entries expire after the TTL
+    // and are evicted explicitly when an account's email, password or role changes.
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        logger.info("Loading user by email: '{}'", email);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> {
-                    logger.error("User not found with email: '{}'", email);
+                    logger.debug("User not found with email: '{}'", email);
                     return new UsernameNotFoundException("Utilisateur non trouvé avec l'email: " + email);
                 });
 
-        logger.info("User found: '{}' with role '{}'", user.getEmail(), user.getRole());
-
-        logger.info("HASH RECUPERE DEPUIS LA DB (AUTH): '{}'", user.getPassword());
-
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
                 .password(user.getPassword())
                 .roles(user.getRole())
                 .build();
     }
+
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = cache.get(email);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.details();
+        }
+
+        UserDetails details = loadUserByUsername(email);
+        if (cache.size() >= cacheMaxSize) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (cache.size() >= cacheMaxSize) {
+                cache.clear();
+            }
+        }
+        cache.put(email, new CachedPrincipal(details, now + cacheTtlMs));
+        return details;
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.remove(email);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.apedo.gestion_eglise.security;
+
+import com.apedo.gestion_eglise.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets for /api/auth/login, one per email and one per client IP, checked
+// before any password hashing. Each bucket is a single AtomicLong holding the
+// "theoretical arrival time" of the next request (GCRA): a request is allowed when
+// that time is within the burst allowance of now, and is recorded with one CAS.
+@Component
+public class LoginRateLimiter {
+    private static final String MESSAGE = "Trop de tentatives de connexion. Réessayez dans %d secondes.";
+    private static final int MAX_BUCKETS = 100_000;
+
+    private final Map<String, AtomicLong> emailBuckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+
+    private final long emailIntervalNanos;
+    private final long emailBurstNanos;
+    private final long ipIntervalNanos;
+    private final long ipBurstNanos;
+    private final Counter emailThrottled;
+    private final Counter ipThrottled;
+
+    public LoginRateLimiter(@Value("${app.loginRate.emailCapacity:5}") int emailCapacity,
+            @Value("${app.loginRate.emailPerMinute:5}") int emailPerMinute,
+            @Value("${app.loginRate.ipCapacity:20}") int ipCapacity,
+            @Value("${app.loginRate.ipPerMinute:30}") int ipPerMinute,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.emailIntervalNanos = TimeUnit.MINUTES.toNanos(1) / emailPerMinute;
+        this.emailBurstNanos = emailIntervalNanos * (emailCapacity - 1);
+        this.ipIntervalNanos = TimeUnit.MINUTES.toNanos(1) / ipPerMinute;
+        this.ipBurstNanos = ipIntervalNanos * (ipCapacity - 1);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.emailThrottled = Counter.builder("auth.login.throttled").tag("scope", "email").register(registry);
+        this.ipThrottled = Counter.builder("auth.login.throttled").tag("scope", "ip").register(registry);
+    }
+
+    // Throws TooManyRequestsException when either bucket is empty
+    public void check(String email, String ip) {
+        long now = System.nanoTime();
+        if (ip != null) {
+            long wait = acquire(ipBuckets, ip, now, ipIntervalNanos, ipBurstNanos);
+            if (wait > 0) {
+                ipThrottled.increment();
+                throw tooMany(wait);
+            }
+        }
+        if (email != null) {
+            long wait = acquire(emailBuckets, email.trim().toLowerCase(Locale.ROOT), now, emailIntervalNanos,
+                    emailBurstNanos);
+            if (wait > 0) {
+                emailThrottled.increment();
+                throw tooMany(wait);
+            }
+        }
+    }
+
+    // A successful login refills the account's bucket so legitimate users are never locked out by their own typos
+    public void reset(String email) {
+        if (email != null) {
+            emailBuckets.remove(email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Buckets whose arrival time is in the past are full again and carry no state
+    @Scheduled(fixedDelay = 300000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        emailBuckets.values().removeIf(tat -> tat.get() - now <= 0);
+        ipBuckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+
+    // Returns 0 when the request is allowed, otherwise the nanoseconds to wait
+    private long acquire(Map<String, AtomicLong> buckets, String key, long now, long interval, long burst) {
+        if (buckets.size() >= MAX_BUCKETS && !buckets.containsKey(key)) {
+            evictIdle();
+        }
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private static TooManyRequestsException tooMany(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        return new TooManyRequestsException(String.format(MESSAGE, seconds), seconds);
+    }
+}
@@ -0,0 +1,89 @@
+package com.apedo.gestion_eglise.security;
+
+import com.apedo.gestion_eglise.entities.RefreshToken;
+import com.apedo.gestion_eglise.entities.User;
+import com.apedo.gestion_eglise.repositories.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// Opaque, rotating refresh tokens. Presenting a token that was already rotated means it
+// leaked (or was replayed), so every refresh token of that user is revoked.
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwtRefreshExpirationMs:604800000}")
+    private long refreshExpirationMs;
+
+    @Transactional
+    public String issue(User user) {
+        byte[] raw = new byte[32];
+        RANDOM.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        refreshTokenRepository.save(new RefreshToken(hash(token), user,
+                LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000)));
+        return token;
+    }
+
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String token) {
+        RefreshToken stored = token != null ? refreshTokenRepository.findByTokenHash(hash(token)).orElse(null) : null;
+        if (stored == null || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Session expirée, veuillez vous reconnecter.");
+        }
+        if (refreshTokenRepository.revokeIfActive(stored.getId(), LocalDateTime.now()) == 0) {
+            logger.warn("Reuse of a rotated refresh token for user {}, revoking all sessions",
+                    stored.getUser().getId());
+            refreshTokenRepository.revokeAllByUserId(stored.getUser().getId(), LocalDateTime.now());
+            throw new BadCredentialsException("Session expirée, veuillez vous reconnecter.");
+        }
+        return new Rotation(stored.getUser(), issue(stored.getUser()));
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        if (token != null) {
+            refreshTokenRepository.findByTokenHash(hash(token))
+                    .ifPresent(stored -> refreshTokenRepository.revokeIfActive(stored.getId(), LocalDateTime.now()));
+        }
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void deleteAll(Long userId) {
+        refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
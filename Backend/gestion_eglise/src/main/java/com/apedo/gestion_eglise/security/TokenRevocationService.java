@@ -0,0 +1,108 @@
+package com.apedo.gestion_eglise.security;
+
+import com.apedo.gestion_eglise.entities.TokenRevocation;
+import com.apedo.gestion_eglise.repositories.RefreshTokenRepository;
+import com.apedo.gestion_eglise.repositories.TokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory view of token_revocations, checked by AuthTokenFilter without any query.
+// Access tokens are short-lived, so an entry only lives until the tokens it covers
+// expire. The view is reloaded periodically to pick up revocations made by other
+// instances.
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    // jti -> expiry (epoch seconds)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // subject -> {tokens issued before (epoch seconds), expiry (epoch seconds)}
+    private final Map<String, long[]> revokedSubjects = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokens.containsKey(claims.getId())) {
+            return true;
+        }
+        long[] subject = revokedSubjects.get(claims.getSubject());
+        return subject != null && claims.getIssuedAt() != null
+                && claims.getIssuedAt().getTime() / 1000 < subject[0];
+    }
+
+    public void revokeToken(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        revocationRepository.save(new TokenRevocation(jti, null, LocalDateTime.now(), expiry));
+        revokedTokens.put(jti, expiresAt.getTime() / 1000);
+    }
+
+    // Invalidates every access token already issued to the subject (password change,
+    // role change, deletion...). Tokens issued from now on are not affected.
+    public void revokeSubject(String subject) {
+        if (subject == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiry = now.plusNanos(jwtUtils.getJwtExpirationMs() * 1_000_000);
+        revocationRepository.save(new TokenRevocation(null, subject, now, expiry));
+        addSubject(subject, toEpochSecond(now), toEpochSecond(expiry));
+    }
+
+    @Scheduled(fixedDelayString = "${app.tokenRevocationRefreshMs:30000}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        for (TokenRevocation revocation : revocationRepository.findByExpiresAtAfter(now)) {
+            long expiry = toEpochSecond(revocation.getExpiresAt());
+            if (revocation.getJti() != null) {
+                revokedTokens.put(revocation.getJti(), expiry);
+            } else if (revocation.getSubject() != null) {
+                addSubject(revocation.getSubject(), toEpochSecond(revocation.getRevokedAt()), expiry);
+            }
+        }
+        long nowSeconds = toEpochSecond(now);
+        revokedTokens.values().removeIf(expiry -> expiry <= nowSeconds);
+        revokedSubjects.values().removeIf(entry -> entry[1] <= nowSeconds);
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int revocations = revocationRepository.deleteExpired(now);
+        int refreshTokens = refreshTokenRepository.deleteExpired(now);
+        if (revocations > 0 || refreshTokens > 0) {
+            logger.info("Purged {} expired revocations and {} expired refresh tokens", revocations, refreshTokens);
+        }
+    }
+
+    private void addSubject(String subject, long notBefore, long expiry) {
+        revokedSubjects.merge(subject, new long[] { notBefore, expiry },
+                (a, b) -> new long[] { Math.max(a[0], b[0]), Math.max(a[1], b[1]) });
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,26 @@
+package com.apedo.gestion_eglise.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Cache invalidation for writers that may run inside a transaction. Bumping a version before the
+// commit lets a concurrent read rebuild from the old rows and cache them under the new version,
+// so the bump waits for the commit (and is dropped on rollback). Outside a transaction it runs now.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,14 +1,31 @@
 package com.apedo.gestion_eglise.services;
 
 import com.apedo.gestion_eglise.repositories.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 public class BackupService {
+    public static final String BACKUP_VERSION = "2.0";
 
     @Autowired
     private MemberRepository memberRepository;
@@ -25,17 +42,94 @@ public class BackupService {
     @Autowired
     private WorshipScheduleRepository worshipScheduleRepository;
 
-    public Map<String, Object> exportAllData() {
-        Map<String, Object> backupData = new HashMap<>();
+    @Autowired
+    private BlobStoreService blobStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        backupData.put("members", memberRepository.findAll());
-        backupData.put("transactions", transactionRepository.findAll());
-        backupData.put("events", eventRepository.findAll());
-        backupData.put("churchConfig", churchConfigRepository.findAll());
-        backupData.put("worshipSchedules", worshipScheduleRepository.findAll());
-        backupData.put("exportDate", new java.util.Date().toString());
-        backupData.put("version", "1.0");
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Writes the backup straight to the output: each table is read through a
+    // server-side cursor and every row is detached once written, so memory use
+    // does not depend on the size of the database.
+    public void exportAllData(OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            writeExport(out);
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("backup.export")
+                    .description("Duration of the streamed backup export")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void writeExport(OutputStream out) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("version", BACKUP_VERSION);
+            generator.writeStringField("exportDate", new java.util.Date().toString());
+            readOnly.executeWithoutResult(status -> {
+                try {
+                    writeArray(generator, writer, "churchConfig", churchConfigRepository.findAll().stream());
+                    writeArray(generator, writer, "worshipSchedules", worshipScheduleRepository.findAll().stream());
+                    writeArray(generator, writer, "members", memberRepository.streamAll());
+                    writeArray(generator, writer, "transactions", transactionRepository.streamAll());
+                    writeArray(generator, writer, "events", eventRepository.streamAll());
+                    writeImages(generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeArray(JsonGenerator generator, ObjectWriter writer, String field, Stream<?> rows)
+            throws IOException {
+        generator.writeArrayFieldStart(field);
+        try (rows) {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object row = iterator.next();
+                writer.writeValue(generator, row);
+                entityManager.detach(row);
+            }
+        }
+        generator.writeEndArray();
+    }
 
-        return backupData;
+    // Event images are written once per blob id, Base64-encoded on the fly from the file
+    private void writeImages(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("images");
+        try (Stream<String> imageIds = eventRepository.streamImageIds()) {
+            Iterator<String> iterator = imageIds.iterator();
+            while (iterator.hasNext()) {
+                String imageId = iterator.next();
+                if (!blobStore.exists(imageId)) {
+                    continue;
+                }
+                Path path = blobStore.resolve(imageId);
+                generator.writeFieldName(imageId);
+                try (InputStream in = Files.newInputStream(path)) {
+                    generator.writeBinary(in, (int) Files.size(path));
+                }
+            }
+        }
+        generator.writeEndObject();
     }
 }
@@ -0,0 +1,104 @@
+package com.apedo.gestion_eglise.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Content-addressed store: blobs are keyed by the SHA-256 of their bytes,
+// so the same image uploaded twice is kept only once on disk.
+@Service
+public class BlobStoreService {
+    private static final Pattern BLOB_ID = Pattern.compile("[0-9a-f]{64}");
+
+    @Value("${app.blobStorePath}")
+    private String blobStorePath;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(blobStorePath).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    public static boolean isBlobId(String value) {
+        return value != null && BLOB_ID.matcher(value).matches();
+    }
+
+    public String store(byte[] data) {
+        String id = sha256(data);
+        Path target = resolve(id);
+        if (Files.exists(target)) {
+            return id;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), id, ".tmp");
+            try {
+                Files.write(tmp, data);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'enregistrer le fichier " + id, e);
+        }
+        return id;
+    }
+
+    public boolean exists(String id) {
+        return isBlobId(id) && Files.isRegularFile(resolve(id));
+    }
+
+    public Path resolve(String id) {
+        if (!isBlobId(id)) {
+            throw new IllegalArgumentException("Identifiant de fichier invalide : " + id);
+        }
+        // Two-level fan-out keeps directories small
+        return root.resolve(id.substring(0, 2)).resolve(id);
+    }
+
+    public String detectContentType(String id) {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(resolve(id))) {
+            read = in.readNBytes(head, 0, head.length);
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F') {
+            return "image/gif";
+        }
+        if (read >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
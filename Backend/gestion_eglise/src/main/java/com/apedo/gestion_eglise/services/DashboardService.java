@@ -0,0 +1,80 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.exceptions.ServiceOverloadedException;
+import com.apedo.gestion_eglise.payload.DashboardSummary;
+import com.apedo.gestion_eglise.payload.EventSummary;
+import com.apedo.gestion_eglise.payload.MemberStats;
+import com.apedo.gestion_eglise.repositories.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// The dashboard blocks are independent, so they are queried concurrently on the application
+// task executor (a bounded pool, or virtual threads when spring.threads.virtual.enabled is set;
+// connections stay bounded by VirtualThreadConfig). The response time is the slowest block
+// instead of the sum.
+@Service
+public class DashboardService {
+    private static final int UPCOMING_EVENTS = 5;
+    private static final int MONTHS = 6;
+
+    @Autowired
+    private MemberStatsService memberStatsService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor executor;
+
+    public DashboardSummary getDashboard() {
+        LocalDate today = LocalDate.now();
+        CompletableFuture<MemberStats> members = async(memberStatsService::getStats);
+        CompletableFuture<List<EventSummary>> upcoming = async(() -> eventImageService.withCoverUrls(
+                eventRepository.findUpcomingSummaries(today, Limit.of(UPCOMING_EVENTS))));
+        CompletableFuture<long[]> eventCounts = async(() -> new long[] {
+                eventRepository.count(),
+                eventRepository.countByDateBetween(today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth()))
+        });
+        CompletableFuture<Map<String, Object>> treasury = async(transactionService::getTreasuryStatistics);
+        CompletableFuture<List<Map<String, Object>>> monthly = async(
+                () -> transactionService.getMonthlyStats(MONTHS, null, null));
+
+        try {
+            CompletableFuture.allOf(members, upcoming, eventCounts, treasury, monthly).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        long[] counts = eventCounts.join();
+        return new DashboardSummary(members.join(), counts[0], counts[1], upcoming.join(), treasury.join(),
+                monthly.join());
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, executor);
+        } catch (TaskRejectedException e) {
+            throw new ServiceOverloadedException("Serveur saturé, veuillez réessayer dans quelques instants.");
+        }
+    }
+}
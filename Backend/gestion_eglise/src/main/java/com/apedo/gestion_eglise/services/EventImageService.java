@@ -0,0 +1,94 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.payload.EventSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class EventImageService {
+
+    @Autowired
+    private BlobStoreService blobStore;
+
+    // Accepts Base64 data URLs for new images, or URLs/ids of images already stored
+    public List<String> storeAll(List<String> images) {
+        List<String> ids = new ArrayList<>();
+        if (images == null) {
+            return ids;
+        }
+        for (String image : images) {
+            if (image != null && !image.isBlank()) {
+                ids.add(storeImage(image));
+            }
+        }
+        return ids;
+    }
+
+    public String storeImage(String image) {
+        String value = image.trim();
+        String lastSegment = value.substring(value.lastIndexOf('/') + 1);
+        if (BlobStoreService.isBlobId(lastSegment)) {
+            if (!blobStore.exists(lastSegment)) {
+                throw new IllegalArgumentException("Image inconnue : " + lastSegment);
+            }
+            return lastSegment;
+        }
+        if (value.startsWith("data:")) {
+            value = value.substring(value.indexOf(',') + 1);
+        }
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Image invalide : contenu Base64 attendu.");
+        }
+        return blobStore.store(data);
+    }
+
+    public Event withImageUrls(Event event) {
+        List<String> urls = new ArrayList<>();
+        for (String imageId : event.getImageIds()) {
+            urls.add(imageUrl(event.getId(), imageId));
+        }
+        event.setImages(urls);
+        return event;
+    }
+
+    public List<EventSummary> withCoverUrls(List<EventSummary> summaries) {
+        for (EventSummary summary : summaries) {
+            if (summary.getCoverImageId() != null) {
+                summary.setCoverImage(imageUrl(summary.getId(), summary.getCoverImageId()));
+            }
+        }
+        return summaries;
+    }
+
+    // For responses cached and served to every client: no host or scheme taken from the current request
+    public List<EventSummary> withCoverPaths(List<EventSummary> summaries) {
+        for (EventSummary summary : summaries) {
+            if (summary.getCoverImageId() != null) {
+                summary.setCoverImage(imagePath(summary.getId(), summary.getCoverImageId()));
+            }
+        }
+        return summaries;
+    }
+
+    public String imageUrl(Long eventId, String imageId) {
+        String path = imagePath(eventId, imageId);
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return path;
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(path).toUriString();
+    }
+
+    private static String imagePath(Long eventId, String imageId) {
+        return "/api/events/" + eventId + "/images/" + imageId;
+    }
+}
@@ -0,0 +1,33 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.repositories.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class EventService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
+
+    // The event and its notification are committed together. Images are stored by the caller:
+    // blobs are content-addressed files, an unreferenced one is harmless.
+    @Transactional
+    public Event createEvent(Event event) {
+        Event saved = eventRepository.save(event);
+        publicSnapshotService.invalidate();
+        notificationService.createNotification(
+                "Nouvel événement",
+                "Événement ajouté : " + saved.getTitle(),
+                "EVENT");
+        return saved;
+    }
+}
@@ -0,0 +1,313 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.payload.MemberImportReport;
+import com.apedo.gestion_eglise.repositories.MemberRepository;
+import com.apedo.gestion_eglise.services.imports.CsvReader;
+import com.apedo.gestion_eglise.services.imports.TabularReader;
+import com.apedo.gestion_eglise.services.imports.XlsxReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Bulk member import from CSV or XLSX. Rows are read one at a time, validated against the
+// constraints on Member and saved in chunks of CHUNK_SIZE, one transaction per chunk, through
+// the batched inserts configured for Hibernate. Only the current chunk is kept in memory: the
+// persistence context is cleared once a chunk is flushed.
+@Service
+public class MemberImportService {
+    private static final Logger logger = LoggerFactory.getLogger(MemberImportService.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    private static final DateTimeFormatter FRENCH_DATE = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    // Normalized header (lower case, no accents, letters and digits only) -> Member property
+    private static final Map<String, String> HEADERS = new HashMap<>();
+
+    static {
+        alias("firstName", "firstname", "prenom", "prenoms");
+        alias("lastName", "lastname", "nom", "nomdefamille");
+        alias("matricule", "matricule");
+        alias("email", "email", "mail", "courriel");
+        alias("phoneNumber", "phonenumber", "phone", "telephone", "tel", "contact");
+        alias("address", "address", "adresse");
+        alias("birthDate", "birthdate", "datedenaissance", "naissance");
+        alias("gender", "gender", "sexe", "genre");
+        alias("profession", "profession");
+        alias("maritalStatus", "maritalstatus", "situationmatrimoniale", "etatcivil");
+        alias("marriageDate", "marriagedate", "datedemariage");
+        alias("marriagePlace", "marriageplace", "lieudemariage");
+        alias("arrivalDate", "arrivaldate", "datedarrivee", "arrivee");
+        alias("baptismDate", "baptismdate", "datedebapteme", "bapteme");
+        alias("baptismLocation", "baptismlocation", "lieudebapteme");
+        alias("departureDate", "departuredate", "datededepart");
+        alias("departureReason", "departurereason", "motifdedepart", "raisondudepart");
+        alias("memberGroup", "membergroup", "groupe", "group");
+        alias("status", "status", "statut");
+    }
+
+    private static final Map<String, BiConsumer<Member, String>> TEXT_SETTERS = Map.ofEntries(
+            Map.entry("firstName", Member::setFirstName),
+            Map.entry("lastName", Member::setLastName),
+            Map.entry("matricule", Member::setMatricule),
+            Map.entry("email", Member::setEmail),
+            Map.entry("phoneNumber", Member::setPhoneNumber),
+            Map.entry("address", Member::setAddress),
+            Map.entry("gender", Member::setGender),
+            Map.entry("profession", Member::setProfession),
+            Map.entry("maritalStatus", Member::setMaritalStatus),
+            Map.entry("marriagePlace", Member::setMarriagePlace),
+            Map.entry("baptismLocation", Member::setBaptismLocation),
+            Map.entry("departureReason", Member::setDepartureReason),
+            Map.entry("memberGroup", Member::setMemberGroup),
+            Map.entry("status", Member::setStatus));
+
+    private static final Map<String, BiConsumer<Member, LocalDate>> DATE_SETTERS = Map.of(
+            "birthDate", Member::setBirthDate,
+            "marriageDate", Member::setMarriageDate,
+            "arrivalDate", Member::setArrivalDate,
+            "baptismDate", Member::setBaptismDate,
+            "departureDate", Member::setDepartureDate);
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private MemberStatsService memberStatsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MemberImportReport importMembers(MultipartFile file, String addedBy) throws IOException {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".xlsx")) {
+            // The zip directory sits at the end of the file: XLSX needs random access
+            Path tmp = Files.createTempFile("member-import-", ".xlsx");
+            try {
+                file.transferTo(tmp);
+                try (TabularReader reader = new XlsxReader(tmp)) {
+                    return importRows(reader, addedBy);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        if (name.endsWith(".csv") || name.endsWith(".txt") || name.isEmpty()) {
+            try (TabularReader reader = new CsvReader(file.getInputStream())) {
+                return importRows(reader, addedBy);
+            }
+        }
+        throw new IllegalArgumentException("Format non supporté : utilisez un fichier .csv ou .xlsx");
+    }
+
+    private MemberImportReport importRows(TabularReader reader, String addedBy) throws IOException {
+        long start = System.nanoTime();
+        MemberImportReport report = new MemberImportReport();
+
+        List<String> header = reader.nextRow();
+        if (header == null) {
+            throw new IllegalArgumentException("Le fichier est vide.");
+        }
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            columns[i] = HEADERS.get(normalize(header.get(i)));
+        }
+        // Unknown columns map to null and are ignored
+        List<String> mapped = Arrays.asList(columns);
+        if (!mapped.contains("firstName") || !mapped.contains("lastName")) {
+            throw new IllegalArgumentException(
+                    "Colonnes obligatoires manquantes : prénom (firstName) et nom (lastName).");
+        }
+
+        List<Member> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        try {
+            List<String> row;
+            while ((row = reader.nextRow()) != null) {
+                if (row.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+                int rowNumber = reader.rowNumber();
+                Member member = toMember(row, columns, rowNumber, report);
+                if (member == null) {
+                    continue;
+                }
+                member.setAddedBy(addedBy);
+                chunk.add(member);
+                chunkRows.add(rowNumber);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, chunkRows, report);
+                }
+            }
+        } catch (IOException e) {
+            // Chunks already saved stay saved: report where reading stopped instead of failing the request
+            addError(report, reader.rowNumber() + 1, null, "Lecture interrompue : " + e.getMessage());
+        }
+        flush(chunk, chunkRows, report);
+        report.setRejected(report.getTotalRows() - report.getImported());
+        report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+
+        if (report.getImported() > 0) {
+            publicSnapshotService.invalidate();
+            memberSearchService.invalidate();
+            memberStatsService.invalidate();
+            // One summary for the whole file, recorded once every chunk is committed
+            String summary = report.getImported() + " membre(s) importé(s)"
+                    + (report.getRejected() > 0 ? ", " + report.getRejected() + " ligne(s) rejetée(s)" : "") + ".";
+            transactionTemplate.executeWithoutResult(status ->
+                    notificationService.createNotification("Import de membres", summary, "MEMBER"));
+        }
+        logger.info("Member import by {}: {} rows, {} imported, {} rejected in {} ms", addedBy,
+                report.getTotalRows(), report.getImported(), report.getRejected(), report.getDurationMs());
+        return report;
+    }
+
+    // Null when the row is rejected; the reasons are added to the report
+    private Member toMember(List<String> row, String[] columns, int rowNumber, MemberImportReport report) {
+        Member member = new Member();
+        boolean valid = true;
+        for (int i = 0; i < columns.length && i < row.size(); i++) {
+            String property = columns[i];
+            String value = row.get(i).trim();
+            if (property == null || value.isEmpty()) {
+                continue;
+            }
+            BiConsumer<Member, String> text = TEXT_SETTERS.get(property);
+            if (text != null) {
+                text.accept(member, value);
+                continue;
+            }
+            try {
+                DATE_SETTERS.get(property).accept(member, parseDate(value));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                addError(report, rowNumber, property, "Date invalide : " + value);
+                valid = false;
+            }
+        }
+        for (ConstraintViolation<Member> violation : validator.validate(member)) {
+            addError(report, rowNumber, violation.getPropertyPath().toString(), violation.getMessage());
+            valid = false;
+        }
+        return valid ? member : null;
+    }
+
+    private void flush(List<Member> chunk, List<Integer> chunkRows, MemberImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.saveAll(chunk);
+                detachAll();
+            });
+            report.setImported(report.getImported() + chunk.size());
+        } catch (RuntimeException e) {
+            // One bad row rolls the whole chunk back: save the rows one by one to report only the
+            // failing ones. Ids assigned during the failed attempt belong to the rolled back inserts.
+            logger.warn("Member import chunk of {} rows failed, retrying row by row: {}", chunk.size(),
+                    e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                Member member = chunk.get(i);
+                member.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        memberRepository.save(member);
+                        detachAll();
+                    });
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException rowError) {
+                    addError(report, chunkRows.get(i), null, "Enregistrement impossible : " + rootMessage(rowError));
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    // With open-in-view the request's EntityManager outlives each chunk transaction and would keep
+    // every imported member managed (and dirty-checked at each commit) until the response
+    private void detachAll() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static void addError(MemberImportReport report, int row, String field, String message) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new MemberImportReport.RowError(row, field, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // ISO (2024-03-31), French (31/03/2024) or an Excel date serial (45382). Serials have at least
+    // five digits (from 1927 on): a bare four-digit value is a year, rejected as incomplete.
+    static LocalDate parseDate(String value) {
+        if (value.matches("\\d{5,}(\\.\\d+)?")) {
+            return EXCEL_EPOCH.plusDays((long) Double.parseDouble(value));
+        }
+        if (value.contains("/")) {
+            return LocalDate.parse(value, FRENCH_DATE);
+        }
+        return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+    }
+
+    private static String normalize(String header) {
+        String stripped = Normalizer.normalize(header, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static void alias(String property, String... names) {
+        for (String name : names) {
+            HEADERS.put(name, property);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.apedo.gestion_eglise.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable trigram inverted index over the searchable member fields, used when the database
+// cannot do the matching itself. Trigrams follow pg_trgm (words padded with two spaces in
+// front and one behind), except that the last query word gets no trailing pad so a word
+// still being typed matches as a prefix. A trigram is packed into a long (three UTF-16 chars).
+public class MemberSearchIndex {
+    private static final double MIN_SCORE = 0.5;
+
+    private final long[] ids;
+    private final Map<Long, int[]> postings;
+
+    private MemberSearchIndex(long[] ids, Map<Long, int[]> postings) {
+        this.ids = ids;
+        this.postings = postings;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Member ids, best match first
+    public List<Long> search(String query, int limit) {
+        Set<Long> trigrams = queryTrigrams(query);
+        if (trigrams.isEmpty()) {
+            return List.of();
+        }
+        int[] counts = new int[ids.length];
+        int[] touched = new int[ids.length];
+        int touchedCount = 0;
+        for (Long trigram : trigrams) {
+            int[] docs = postings.get(trigram);
+            if (docs == null) {
+                continue;
+            }
+            for (int doc : docs) {
+                if (counts[doc]++ == 0) {
+                    touched[touchedCount++] = doc;
+                }
+            }
+        }
+
+        int needed = (int) Math.ceil(trigrams.size() * MIN_SCORE);
+        List<int[]> matches = new ArrayList<>();
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (counts[doc] >= needed) {
+                matches.add(new int[] { doc, counts[doc] });
+            }
+        }
+        matches.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Long.compare(ids[a[0]], ids[b[0]]));
+
+        List<Long> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(ids[matches.get(i)[0]]);
+        }
+        return result;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private long[] ids = new long[1024];
+        private int count;
+
+        public void add(long id, String... fields) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            int doc = count++;
+            ids[doc] = id;
+            Set<Long> trigrams = new HashSet<>();
+            for (String field : fields) {
+                for (String word : words(field)) {
+                    addTrigrams("  " + word + " ", trigrams);
+                }
+            }
+            for (Long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, k -> new IntList()).add(doc);
+            }
+        }
+
+        public MemberSearchIndex build() {
+            Map<Long, int[]> compact = new HashMap<>(postings.size() * 2);
+            postings.forEach((trigram, docs) -> compact.put(trigram, docs.toArray()));
+            return new MemberSearchIndex(Arrays.copyOf(ids, count), compact);
+        }
+    }
+
+    static Set<Long> queryTrigrams(String query) {
+        List<String> words = words(query);
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            addTrigrams(i == words.size() - 1 ? "  " + word : "  " + word + " ", trigrams);
+        }
+        return trigrams;
+    }
+
+    // Lower case, accents removed, split on anything that is not a letter or a digit.
+    // Hand-rolled rather than regex based: it runs for every field of every member on a rebuild.
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> words = new ArrayList<>(4);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static void addTrigrams(String padded, Set<Long> target) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            target.add((long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2));
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.repositories.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Accent-insensitive, typo-tolerant member search over names, matricule, email and phone.
+// On Postgres the matching runs on GIN indexes (pg_trgm word similarity for typos and prefixes,
+// a 'simple' tsvector for whole words); elsewhere, or until those are installed, it falls back
+// to an in-memory trigram index rebuilt lazily after member writes. A transient database error
+// only sends the current request to that index.
+@Service
+public class MemberSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(MemberSearchService.class);
+    public static final int MAX_LIMIT = 50;
+
+    // Must stay identical in the functional indexes and in the WHERE clause for the indexes to apply
+    private static final String DOCUMENT = "member_search_document(m.first_name, m.last_name, m.matricule, "
+            + "m.email, m.phone_number)";
+    private static final String SEARCH_SQL = "SELECT m.id FROM members m "
+            + "WHERE :term <% " + DOCUMENT + " "
+            + "OR (:tsquery <> '' AND to_tsvector('simple', " + DOCUMENT + ") @@ to_tsquery('simple', :tsquery)) "
+            + "ORDER BY word_similarity(:term, " + DOCUMENT + ") "
+            + "+ CASE WHEN :tsquery <> '' THEN ts_rank(to_tsvector('simple', " + DOCUMENT + "), "
+            + "to_tsquery('simple', :tsquery)) ELSE 0 END DESC, m.id "
+            + "LIMIT :limit";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private volatile boolean postgres;
+    private volatile boolean databaseSearch;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile MemberSearchIndex index;
+    private volatile long indexVersion = -1;
+
+    // Members are matched then loaded in rank order
+    public List<Member> search(String query, int limit) {
+        String term = normalizeQuery(query);
+        if (term.length() < 2) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Long> ids = null;
+        if (databaseSearch) {
+            try {
+                ids = namedJdbcTemplate.queryForList(SEARCH_SQL, new MapSqlParameterSource()
+                        .addValue("term", term)
+                        .addValue("tsquery", toTsQuery(term))
+                        .addValue("limit", size), Long.class);
+            } catch (BadSqlGrammarException e) {
+                // The function or an extension is gone (e.g. dropped by a restored dump): stop using the
+                // database until reprobe() reinstalls them
+                logger.warn("Database member search unavailable, using the in-memory index: {}", e.getMessage());
+                databaseSearch = false;
+            } catch (DataAccessException e) {
+                // Transient (connection wait, statement timeout...): only this request falls back
+                logger.warn("Database member search failed, using the in-memory index once: {}", e.getMessage());
+            }
+        }
+        if (ids == null) {
+            ids = currentIndex().search(term, size);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Member> byId = memberRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+        List<Member> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Member member = byId.get(id);
+            if (member != null) {
+                ranked.add(member);
+            }
+        }
+        return ranked;
+    }
+
+    // Called on every member write; only the in-memory fallback needs it
+    public void invalidate() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    // Extensions, the normalizing function and the indexes. Any failure (no Postgres, no right to
+    // create extensions) leaves the in-memory index in charge.
+    public void installDatabaseSearch() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            logger.info("Member search uses the in-memory index ({} database)", product);
+            return;
+        }
+        postgres = true;
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            // unaccent() is only STABLE; the dictionary-qualified call wrapped in an IMMUTABLE
+            // function is what allows an index on it
+            jdbcTemplate.execute("CREATE OR REPLACE FUNCTION member_search_document(first_name text, "
+                    + "last_name text, matricule text, email text, phone text) RETURNS text "
+                    + "LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$ "
+                    + "SELECT lower(public.unaccent('public.unaccent'::regdictionary, concat_ws(' ', first_name, "
+                    + "last_name, matricule, email, regexp_replace(coalesce(phone, ''), '\\D', '', 'g')))) $$");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_members_search_trgm ON members USING gin ("
+                    + DOCUMENT.replace("m.", "") + " gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_members_search_fts ON members USING gin ("
+                    + "to_tsvector('simple', " + DOCUMENT.replace("m.", "") + "))");
+            databaseSearch = true;
+            logger.info("Member search uses the Postgres trigram and full-text indexes");
+        } catch (DataAccessException e) {
+            logger.warn("Postgres member search unavailable, using the in-memory index: {}", e.getMessage());
+        }
+    }
+
+    // Retries the installation while on Postgres but without the database search
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    public void reprobe() {
+        if (postgres && !databaseSearch) {
+            installDatabaseSearch();
+        }
+    }
+
+    // Fresh index if nothing changed; otherwise one caller rebuilds while the others keep
+    // answering from the previous index
+    private MemberSearchIndex currentIndex() {
+        MemberSearchIndex current = index;
+        if (current != null && indexVersion == version.get()) {
+            return current;
+        }
+        if (current != null && !rebuildLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            rebuildLock.lock();
+        }
+        try {
+            long target = version.get();
+            if (index != null && indexVersion == target) {
+                return index;
+            }
+            MemberSearchIndex.Builder builder = MemberSearchIndex.builder();
+            jdbcTemplate.query("SELECT id, first_name, last_name, matricule, email, phone_number FROM members",
+                    rs -> {
+                        String phone = rs.getString("phone_number");
+                        builder.add(rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"),
+                                rs.getString("matricule"), rs.getString("email"),
+                                phone != null ? phone.replaceAll("\\D", "") : null);
+                    });
+            index = builder.build();
+            indexVersion = target;
+            return index;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Lower case, no accents; a phone-like query keeps its digits only, as the phone is indexed
+    private static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String trimmed = query.trim();
+        if (trimmed.matches("[+\\d\\s().-]+") && trimmed.chars().filter(Character::isDigit).count() >= 2) {
+            return trimmed.replaceAll("\\D", "");
+        }
+        return String.join(" ", MemberSearchIndex.words(trimmed));
+    }
+
+    // Every word as a prefix: "kos agb" -> "kos:* & agb:*"
+    private static String toTsQuery(String term) {
+        return MemberSearchIndex.words(term).stream()
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
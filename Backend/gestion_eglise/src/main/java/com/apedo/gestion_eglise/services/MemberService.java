@@ -1,35 +1,145 @@
 package com.apedo.gestion_eglise.services;
 
 import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.payload.CursorPage;
+import com.apedo.gestion_eglise.payload.MemberQuery;
 import com.apedo.gestion_eglise.repositories.MemberRepository;
+import com.apedo.gestion_eglise.repositories.MemberSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MemberService {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "lastName", "firstName");
+
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    PublicSnapshotService publicSnapshotService;
+
+    @Autowired
+    MemberSearchService memberSearchService;
+
+    @Autowired
+    MemberStatsService memberStatsService;
+
+    @Autowired
+    NotificationService notificationService;
+
     public List<Member> getAllMembers() {
         return memberRepository.findAll();
     }
 
+    public CursorPage<Member> getMembersPage(MemberQuery query) {
+        String field = StringUtils.hasText(query.getSort()) ? query.getSort() : "id";
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Tri non supporté : " + field);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(query.getDirection());
+        int size = Math.max(1, Math.min(query.getSize(), MAX_PAGE_SIZE));
+
+        Specification<Member> filters = MemberSpecifications.withFilters(query);
+        Specification<Member> spec = filters;
+        if (StringUtils.hasText(query.getCursor())) {
+            spec = spec.and(decodeCursor(query.getCursor(), field, ascending));
+        }
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort order = "id".equals(field)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, field).and(Sort.by(direction, "id"));
+
+        // Fetch one extra row to know whether another page exists without a COUNT
+        List<Member> rows = memberRepository.findBy(spec, q -> q.sortBy(order).limit(size + 1).all());
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            nextCursor = encodeCursor(field, rows.get(size - 1));
+        }
+
+        Long totalCount = query.isIncludeTotal() ? memberRepository.count(filters) : null;
+        return new CursorPage<>(rows, nextCursor, totalCount);
+    }
+
     public Optional<Member> getMemberById(Long id) {
         return memberRepository.findById(id);
     }
 
+    // The member and its notification are committed together
+    @Transactional
+    public Member createMember(Member member) {
+        Member saved = saveMember(member);
+        notificationService.createNotification(
+                "Nouveau membre",
+                "Un nouveau membre a été ajouté : " + saved.getFirstName() + " " + saved.getLastName(),
+                "MEMBER");
+        return saved;
+    }
+
     public Member saveMember(Member member) {
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        publicSnapshotService.invalidate();
+        memberSearchService.invalidate();
+        memberStatsService.invalidate();
+        return saved;
     }
 
     public void deleteMember(Long id) {
         memberRepository.deleteById(id);
+        publicSnapshotService.invalidate();
+        memberSearchService.invalidate();
+        memberStatsService.invalidate();
     }
 
     public void deleteAllMembers(List<Long> ids) {
         memberRepository.deleteAllById(ids);
+        publicSnapshotService.invalidate();
+        memberSearchService.invalidate();
+        memberStatsService.invalidate();
+    }
+
+    private String encodeCursor(String field, Member last) {
+        String value = switch (field) {
+            case "lastName" -> last.getLastName();
+            case "firstName" -> last.getFirstName();
+            default -> "";
+        };
+        String raw = field + "|" + value + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Member> decodeCursor(String cursor, String field, boolean ascending) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+        int first = raw.indexOf('|');
+        int last = raw.lastIndexOf('|');
+        if (first < 0 || first == last || !raw.substring(0, first).equals(field)) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+        String value = raw.substring(first + 1, last);
+        Long id;
+        try {
+            id = Long.valueOf(raw.substring(last + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+        return MemberSpecifications.after(field, value, id, ascending);
     }
 }
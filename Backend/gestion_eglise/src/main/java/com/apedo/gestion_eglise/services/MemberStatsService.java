@@ -0,0 +1,124 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.payload.MemberStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Member counts per status, group, gender, marital status, age bucket and baptism, computed in
+// one GROUPING SETS query and cached until the next member write (or the next day, since age
+// buckets and "new this month" depend on the date).
+@Service
+public class MemberStatsService {
+    private static final String UNKNOWN = "Non renseigné";
+    private static final String[] AGE_BUCKETS = { "0-14", "15-34", "35-59", "60+" };
+
+    // One row per (dimension, value); the empty grouping set gives the totals
+    private static final String STATS_SQL = "SELECT "
+            + "CASE WHEN GROUPING(status) = 0 THEN 'status' "
+            + "WHEN GROUPING(member_group) = 0 THEN 'group' "
+            + "WHEN GROUPING(gender) = 0 THEN 'gender' "
+            + "WHEN GROUPING(marital_status) = 0 THEN 'marital' "
+            + "WHEN GROUPING(age_bucket) = 0 THEN 'age' "
+            + "WHEN GROUPING(baptised) = 0 THEN 'baptised' "
+            + "ELSE 'total' END AS dimension, "
+            + "COALESCE(status, member_group, gender, marital_status, age_bucket, "
+            + "CASE WHEN baptised THEN 'oui' WHEN NOT baptised THEN 'non' END) AS value, "
+            + "COUNT(*) AS members, "
+            + "SUM(CASE WHEN arrival_date >= ? THEN 1 ELSE 0 END) AS new_this_month "
+            + "FROM (SELECT status, member_group, gender, marital_status, arrival_date, "
+            + "baptism_date IS NOT NULL AS baptised, "
+            + "CASE WHEN birth_date IS NULL THEN NULL "
+            + "WHEN birth_date > ? THEN '0-14' "
+            + "WHEN birth_date > ? THEN '15-34' "
+            + "WHEN birth_date > ? THEN '35-59' "
+            + "ELSE '60+' END AS age_bucket "
+            + "FROM members) m "
+            + "GROUP BY GROUPING SETS ((status), (member_group), (gender), (marital_status), (age_bucket), "
+            + "(baptised), ())";
+
+    private record Cached(long version, LocalDate day, MemberStats stats) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Cached cached;
+
+    public void invalidate() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    public MemberStats getStats() {
+        Cached current = cached;
+        LocalDate today = LocalDate.now();
+        if (current != null && current.version() == version.get() && current.day().equals(today)) {
+            return current.stats();
+        }
+        rebuildLock.lock();
+        try {
+            long wanted = version.get();
+            current = cached;
+            if (current == null || current.version() != wanted || !current.day().equals(today)) {
+                current = new Cached(wanted, today, compute(today));
+                cached = current;
+            }
+            return current.stats();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private MemberStats compute(LocalDate today) {
+        MemberStats stats = new MemberStats();
+        for (String bucket : AGE_BUCKETS) {
+            stats.getByAgeBucket().put(bucket, 0L);
+        }
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            String value = rs.getString("value") != null ? rs.getString("value") : UNKNOWN;
+            long count = rs.getLong("members");
+            switch (rs.getString("dimension")) {
+                case "status" -> stats.getByStatus().put(value, count);
+                case "group" -> stats.getByGroup().put(value, count);
+                case "gender" -> stats.getByGender().put(value, count);
+                case "marital" -> stats.getByMaritalStatus().put(value, count);
+                case "age" -> stats.getByAgeBucket().put(value, count);
+                case "baptised" -> {
+                    if ("oui".equals(value)) {
+                        stats.setBaptised(count);
+                    } else {
+                        stats.setNotBaptised(count);
+                    }
+                }
+                default -> {
+                    stats.setTotal(count);
+                    stats.setNewThisMonth(rs.getLong("new_this_month"));
+                }
+            }
+        }, today.withDayOfMonth(1), today.minusYears(15), today.minusYears(35), today.minusYears(60));
+        sortByCount(stats.getByStatus());
+        sortByCount(stats.getByGroup());
+        sortByCount(stats.getByGender());
+        sortByCount(stats.getByMaritalStatus());
+        stats.setComputedAt(LocalDateTime.now());
+        return stats;
+    }
+
+    private static void sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        counts.clear();
+        counts.putAll(sorted);
+    }
+}
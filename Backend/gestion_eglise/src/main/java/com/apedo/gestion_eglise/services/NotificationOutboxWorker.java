@@ -0,0 +1,178 @@
+package com.apedo.gestion_eglise.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Expands notification_outbox rows into per-user notifications off the request thread.
+// A single worker thread with a one-slot queue: wake-ups that arrive while a drain is
+// already pending are dropped, since that drain will pick their rows up anyway.
+@Service
+public class NotificationOutboxWorker {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxWorker.class);
+    private static final int BATCH_SIZE = 100;
+
+    // Notification type -> users column holding the matching preference
+    private static final Map<String, String> PREFERENCE_COLUMNS = Map.of(
+            "MEMBER", "notify_new_members",
+            "FINANCE", "notify_transactions",
+            "EVENT", "notify_events");
+
+    private record OutboxRow(long id, String title, String message, String type, Timestamp createdAt) {
+    }
+
+    // What a committed batch must push to the users connected to the notification stream
+    private record BatchResult(boolean full, List<Map<String, Object>> created, Map<Long, Long> unreadCounts) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private NotificationStreamService streamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> new Thread(r, "notification-outbox"),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    // Safety net for rows left behind by a crash or a dropped wake-up
+    @Scheduled(fixedDelayString = "${app.notificationOutboxPollMs:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    private void drain() {
+        try {
+            BatchResult result;
+            do {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                result = transactionTemplate.execute(status -> processBatch());
+                sample.stop(meterRegistry.timer("notifications.outbox.batch"));
+                if (result != null) {
+                    publish(result);
+                }
+            } while (result != null && result.full());
+        } catch (Exception e) {
+            logger.error("Notification fan-out failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private BatchResult processBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(
+                "SELECT id, title, message, type, created_at FROM notification_outbox "
+                        + "WHERE processed_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new OutboxRow(rs.getLong("id"), rs.getString("title"), rs.getString("message"),
+                        rs.getString("type"), rs.getTimestamp("created_at")),
+                BATCH_SIZE);
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Set<Long> connected = streamService.connectedUserIds();
+        List<Map<String, Object>> created = new ArrayList<>();
+        Map<String, Integer> addedPerPreference = new HashMap<>();
+        for (OutboxRow row : rows) {
+            String preference = PREFERENCE_COLUMNS.get(row.type());
+            if (preference == null) {
+                continue;
+            }
+            // Subscribed users are selected by the database. RETURNING gives exactly the rows of this
+            // insert, whatever other instances write meanwhile and in whatever order they commit.
+            List<long[]> inserted = jdbcTemplate.query(
+                    "INSERT INTO notifications (id, user_id, title, message, type, is_read, created_at) "
+                            + "SELECT nextval('notifications_seq'), u.id, ?, ?, ?, false, ? FROM users u "
+                            + "WHERE COALESCE(u." + preference + ", true) RETURNING id, user_id",
+                    (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) },
+                    row.title(), row.message(), row.type(), row.createdAt());
+            fanOutSize(row.type()).record(inserted.size());
+            addedPerPreference.merge(preference, 1, Integer::sum);
+            for (long[] notification : inserted) {
+                if (connected.contains(notification[1])) {
+                    created.add(toPush(notification[0], notification[1], row));
+                }
+            }
+        }
+        // Same subscriber set, so every one of them gets exactly that many new unread rows
+        addedPerPreference.forEach((preference, added) -> jdbcTemplate.update(
+                "UPDATE users SET unread_notifications = COALESCE(unread_notifications, 0) + ? "
+                        + "WHERE COALESCE(" + preference + ", true)", added));
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate("UPDATE notification_outbox SET processed_at = ? WHERE id = ?",
+                rows.stream().map(row -> new Object[] { now, row.id() }).toList());
+
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        if (!connected.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, COALESCE(unread_notifications, 0) FROM users WHERE id IN (:userIds)",
+                    new MapSqlParameterSource("userIds", connected), rs -> {
+                        unreadCounts.put(rs.getLong(1), rs.getLong(2));
+                    });
+        }
+        return new BatchResult(rows.size() == BATCH_SIZE, created, unreadCounts);
+    }
+
+    private static Map<String, Object> toPush(long id, long userId, OutboxRow row) {
+        Map<String, Object> n = new LinkedHashMap<>();
+        n.put("id", id);
+        n.put("userId", userId);
+        n.put("title", row.title());
+        n.put("message", row.message());
+        n.put("type", row.type());
+        n.put("read", false);
+        n.put("createdAt", row.createdAt().toLocalDateTime());
+        return n;
+    }
+
+    private DistributionSummary fanOutSize(String type) {
+        return DistributionSummary.builder("notifications.fanout.size")
+                .description("Notifications created per outbox entry")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private void publish(BatchResult result) {
+        for (Map<String, Object> notification : result.created()) {
+            streamService.sendNotification((Long) notification.get("userId"), notification);
+        }
+        result.unreadCounts().forEach(streamService::sendUnreadCount);
+    }
+}
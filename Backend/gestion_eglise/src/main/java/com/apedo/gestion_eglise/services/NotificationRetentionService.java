@@ -0,0 +1,204 @@
+package com.apedo.gestion_eglise.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps notifications and notification_outbox bounded. Rows are deleted in small
+// transactions so the purge never holds long locks; in partitioned mode whole months
+// past the retention period are dropped instead. Unread rows that disappear are
+// subtracted from users.unread_notifications.
+@Service
+public class NotificationRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final int MONTHS_AHEAD = 2;
+
+    @Value("${app.notificationRetentionDays:180}")
+    private int retentionDays;
+
+    @Value("${app.notificationReadRetentionDays:30}")
+    private int readRetentionDays;
+
+    @Value("${app.notificationOutboxRetentionDays:7}")
+    private int outboxRetentionDays;
+
+    @Value("${app.notificationPurgeBatchSize:5000}")
+    private int batchSize;
+
+    @Value("${app.notificationPartitioning:false}")
+    private boolean partitioning;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${app.notificationPurgeCron:0 30 3 * * *}")
+    public void purge() {
+        try {
+            if (partitioning && isPartitioned()) {
+                ensurePartitions(YearMonth.now(), YearMonth.now().plusMonths(MONTHS_AHEAD));
+                dropExpiredPartitions();
+            }
+
+            long deleted = 0;
+            if (retentionDays > 0) {
+                deleted += deleteNotifications("created_at < ?", cutoff(retentionDays));
+            }
+            if (readRetentionDays > 0) {
+                deleted += deleteNotifications("is_read = true AND created_at < ?", cutoff(readRetentionDays));
+            }
+            long outbox = outboxRetentionDays > 0 ? deleteProcessedOutbox(cutoff(outboxRetentionDays)) : 0;
+            if (deleted > 0 || outbox > 0) {
+                logger.info("Notification purge: {} notifications and {} outbox rows deleted", deleted, outbox);
+            }
+        } catch (Exception e) {
+            logger.error("Notification purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('notifications')), false)",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    // One-shot conversion of the plain table created by Hibernate into a table partitioned
+    // by month of created_at. Runs in a single transaction holding an exclusive lock, so it
+    // is meant for a start-up with a reasonably sized history.
+    public void convertToPartitioned() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE notifications IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("UPDATE notifications SET created_at = now() WHERE created_at IS NULL");
+            jdbcTemplate.execute("ALTER TABLE notifications RENAME TO notifications_legacy");
+
+            jdbcTemplate.execute("CREATE TABLE notifications (LIKE notifications_legacy INCLUDING DEFAULTS) "
+                    + "PARTITION BY RANGE (created_at)");
+            jdbcTemplate.execute("ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_seq')");
+            jdbcTemplate.execute("ALTER TABLE notifications ADD PRIMARY KEY (id, created_at)");
+            jdbcTemplate.execute("ALTER TABLE notifications ADD FOREIGN KEY (user_id) REFERENCES users (id)");
+            // Re-owned before the legacy table is dropped, which would otherwise drop the sequence with it
+            jdbcTemplate.execute("ALTER SEQUENCE notifications_seq OWNED BY notifications.id");
+
+            LocalDateTime oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(created_at) FROM notifications_legacy", LocalDateTime.class);
+            YearMonth now = YearMonth.now();
+            YearMonth first = oldest != null && YearMonth.from(oldest).isBefore(now) ? YearMonth.from(oldest) : now;
+            ensurePartitions(first, now.plusMonths(MONTHS_AHEAD));
+            // Catches clock skew and anything beyond the pre-created months
+            jdbcTemplate.execute("CREATE TABLE notifications_default PARTITION OF notifications DEFAULT");
+
+            int copied = jdbcTemplate.update("INSERT INTO notifications SELECT * FROM notifications_legacy");
+            jdbcTemplate.execute("DROP TABLE notifications_legacy");
+            jdbcTemplate.execute("CREATE INDEX idx_notifications_user_read_created "
+                    + "ON notifications (user_id, is_read, created_at)");
+            jdbcTemplate.execute("CREATE INDEX idx_notifications_user_created "
+                    + "ON notifications (user_id, created_at, id)");
+            logger.info("Table notifications converted to monthly partitions ({} rows copied)", copied);
+        });
+    }
+
+    private void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF notifications FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                        + month.plusMonths(1).atDay(1) + "')");
+            } catch (Exception e) {
+                // Typically rows for that month already sit in the default partition
+                logger.warn("Could not create partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'notifications'::regclass "
+                        + "AND c.relname ~ '^notifications_p[0-9]{4}_[0-9]{2}$'",
+                String.class);
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE users u SET unread_notifications = "
+                        + "GREATEST(COALESCE(u.unread_notifications, 0) - c.unread, 0) "
+                        + "FROM (SELECT user_id, COUNT(*) AS unread FROM " + partition
+                        + " WHERE is_read = false GROUP BY user_id) c WHERE u.id = c.user_id");
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+            logger.info("Notification partition {} dropped", partition);
+        }
+    }
+
+    private long deleteNotifications(String condition, Timestamp cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                Map<Long, Long> unreadByUser = new HashMap<>();
+                int[] rows = { 0 };
+                jdbcTemplate.query("DELETE FROM notifications WHERE id IN (SELECT id FROM notifications WHERE "
+                        + condition + " LIMIT ?) RETURNING user_id, is_read", rs -> {
+                            rows[0]++;
+                            if (!rs.getBoolean("is_read")) {
+                                unreadByUser.merge(rs.getLong("user_id"), 1L, Long::sum);
+                            }
+                        }, cutoff, batchSize);
+                if (!unreadByUser.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE users SET unread_notifications = "
+                            + "GREATEST(COALESCE(unread_notifications, 0) - ?, 0) WHERE id = ?",
+                            unreadByUser.entrySet().stream()
+                                    .map(e -> new Object[] { e.getValue(), e.getKey() }).toList());
+                }
+                return rows[0];
+            });
+            deleted = count != null ? count : 0;
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    private long deleteProcessedOutbox(Timestamp cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM notification_outbox WHERE id IN "
+                    + "(SELECT id FROM notification_outbox WHERE processed_at < ? LIMIT ?)", cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+
+    private static Timestamp cutoff(int days) {
+        return Timestamp.valueOf(LocalDateTime.now().minusDays(days));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -1,16 +1,31 @@
 package com.apedo.gestion_eglise.services;
 
-import com.apedo.gestion_eglise.entities.Notification;
+import com.apedo.gestion_eglise.entities.NotificationOutbox;
 import com.apedo.gestion_eglise.entities.User;
+import com.apedo.gestion_eglise.payload.NotificationFeed;
+import com.apedo.gestion_eglise.payload.NotificationItem;
+import com.apedo.gestion_eglise.repositories.NotificationOutboxRepository;
 import com.apedo.gestion_eglise.repositories.NotificationRepository;
 import com.apedo.gestion_eglise.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class NotificationService {
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private NotificationRepository notificationRepository;
@@ -18,50 +33,110 @@ public class NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationOutboxWorker outboxWorker;
+
+    @Autowired
+    private NotificationStreamService streamService;
+
+    // Only records the fan-out; NotificationOutboxWorker creates the per-user rows after commit.
+    // Must join the transaction that writes the entity being notified about, so that both
+    // commit or roll back together.
+    @Transactional(propagation = Propagation.MANDATORY)
     public void createNotification(String title, String message, String type) {
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            boolean shouldNotify = false;
-            switch (type) {
-                case "MEMBER":
-                    shouldNotify = user.getNotifyNewMembers() == null || user.getNotifyNewMembers();
-                    break;
-                case "FINANCE":
-                    shouldNotify = user.getNotifyTransactions() == null || user.getNotifyTransactions();
-                    break;
-                case "EVENT":
-                    shouldNotify = user.getNotifyEvents() == null || user.getNotifyEvents();
-                    break;
+        outboxRepository.save(new NotificationOutbox(title, message, type));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxWorker.wakeUp();
             }
+        });
+    }
+
+    public NotificationFeed getFeed(String email, String cursor, int size) {
+        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
 
-            if (shouldNotify) {
-                Notification notification = new Notification(user, title, message, type);
-                notificationRepository.save(notification);
+        List<NotificationItem> rows;
+        if (StringUtils.hasText(cursor)) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                rows = notificationRepository.findFeedAfter(user.getId(), LocalDateTime.parse(parts[0]),
+                        Long.valueOf(parts[1]), limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
             }
+        } else {
+            rows = notificationRepository.findFeed(user.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            NotificationItem last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt() + "|" + last.getId());
         }
+        return new NotificationFeed(rows, nextCursor, userRepository.findUnreadNotificationsById(user.getId()));
     }
 
-    public List<Notification> getNotificationsForUser(String email) {
+    public SseEmitter subscribe(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        return streamService.subscribe(user.getId(), userRepository.findUnreadNotificationsById(user.getId()));
     }
 
+    @Transactional
     public void markAsRead(Long notificationId) {
-        notificationRepository.findById(notificationId).ifPresent(n -> {
-            n.setRead(true);
-            notificationRepository.save(n);
+        notificationRepository.findUserIdById(notificationId).ifPresent(userId -> {
+            if (notificationRepository.markReadById(notificationId) > 0) {
+                userRepository.adjustUnreadNotifications(userId, -1);
+                pushUnreadCount(userId);
+            }
         });
     }
 
+    // One set-based UPDATE; the counter is decremented by what was actually flipped so
+    // notifications fanned out concurrently stay counted
+    @Transactional
     public void markAllAsRead(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        List<Notification> unread = notificationRepository.findByUserOrderByCreatedAtDesc(user);
-        unread.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unread);
+        int updated = notificationRepository.markAllReadByUserId(user.getId());
+        if (updated > 0) {
+            userRepository.adjustUnreadNotifications(user.getId(), -updated);
+            pushUnreadCount(user.getId());
+        }
     }
 
     public long getUnreadCount(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.countByUserAndRead(user, false);
+        return userRepository.findUnreadNotificationsById(user.getId());
+    }
+
+    // Keeps the badge of the user's other open tabs in sync
+    private void pushUnreadCount(Long userId) {
+        if (streamService.isConnected(userId)) {
+            streamService.sendUnreadCount(userId, userRepository.findUnreadNotificationsById(userId));
+        }
+    }
+
+    private String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+        return parts;
     }
 }
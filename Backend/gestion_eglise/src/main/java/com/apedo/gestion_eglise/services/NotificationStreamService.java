@@ -0,0 +1,81 @@
+package com.apedo.gestion_eglise.services;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Server-Sent Events connections per user. Emitters are async responses, so an
+// open connection holds no request thread, only the emitter itself.
+@Service
+public class NotificationStreamService {
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L; // the browser reconnects on its own
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        send(userId, emitter, "unread-count", Map.of("count", unreadCount));
+        return emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    public Set<Long> connectedUserIds() {
+        return Set.copyOf(emitters.keySet());
+    }
+
+    public void sendNotification(Long userId, Map<String, Object> notification) {
+        sendToUser(userId, "notification", notification);
+    }
+
+    public void sendUnreadCount(Long userId, long count) {
+        sendToUser(userId, "unread-count", Map.of("count", count));
+    }
+
+    // Keeps proxies from closing idle connections and detects dead clients
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        emitters.forEach((userId, list) -> list.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, emitter);
+            }
+        }));
+    }
+
+    private void sendToUser(Long userId, String name, Object data) {
+        List<SseEmitter> list = emitters.get(userId);
+        if (list != null) {
+            list.forEach(emitter -> send(userId, emitter, name, data));
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.entities.ChurchConfig;
+import com.apedo.gestion_eglise.entities.WorshipSchedule;
+import com.apedo.gestion_eglise.payload.EventSummary;
+import com.apedo.gestion_eglise.repositories.ChurchConfigRepository;
+import com.apedo.gestion_eglise.repositories.EventRepository;
+import com.apedo.gestion_eglise.repositories.MemberRepository;
+import com.apedo.gestion_eglise.repositories.WorshipScheduleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pre-serialized copy of the anonymous landing-page data. Writers call invalidate();
+// the next reader rebuilds the snapshot once and every other reader gets the cached bytes.
+@Service
+public class PublicSnapshotService {
+
+    public record CachedJson(byte[] body, String etag) {
+    }
+
+    private record Snapshot(long version, CachedJson stats, CachedJson latestEvents, CachedJson schedules,
+            CachedJson churchInfo, CachedJson landing) {
+    }
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private WorshipScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ChurchConfigRepository churchConfigRepository;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public void invalidate() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    public CachedJson stats() {
+        return current().stats();
+    }
+
+    public CachedJson latestEvents() {
+        return current().latestEvents();
+    }
+
+    public CachedJson schedules() {
+        return current().schedules();
+    }
+
+    public CachedJson churchInfo() {
+        return current().churchInfo();
+    }
+
+    public CachedJson landing() {
+        return current().landing();
+    }
+
+    public static ChurchConfig defaultChurchConfig() {
+        return new ChurchConfig(null, "Temple Emmanuel", "Lomé, Togo", "+228 XX XX XX XX",
+                "contact@temple-emmanuel.org");
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+        // A lock rather than synchronized: the rebuild queries the database, and a virtual
+        // thread blocking inside a monitor would pin its carrier thread
+        rebuildLock.lock();
+        try {
+            long wanted = version.get();
+            current = snapshot;
+            if (current == null || current.version() != wanted) {
+                // Built against the version read before querying: a write landing meanwhile
+                // bumps the version again and forces another rebuild on the next read.
+                current = build(wanted);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot build(long snapshotVersion) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalMembers", memberRepository.count());
+        stats.put("totalEvents", eventRepository.count());
+        List<EventSummary> latestEvents = eventImageService.withCoverPaths(eventRepository.findSummaries(Limit.of(3)));
+        List<WorshipSchedule> schedules = scheduleRepository.findAll();
+        ChurchConfig churchInfo = churchConfigRepository.findAll().stream().findFirst()
+                .orElse(defaultChurchConfig());
+
+        Map<String, Object> landing = new LinkedHashMap<>();
+        landing.put("stats", stats);
+        landing.put("latestEvents", latestEvents);
+        landing.put("schedules", schedules);
+        landing.put("churchInfo", churchInfo);
+
+        return new Snapshot(snapshotVersion, serialize(stats), serialize(latestEvents), serialize(schedules),
+                serialize(churchInfo), serialize(landing));
+    }
+
+    private CachedJson serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new CachedJson(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Impossible de sérialiser les données publiques", e);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.config.ResettablePooledOptimizer;
+import com.apedo.gestion_eglise.entities.ChurchConfig;
+import com.apedo.gestion_eglise.entities.Event;
+import com.apedo.gestion_eglise.entities.Member;
+import com.apedo.gestion_eglise.entities.Transaction;
+import com.apedo.gestion_eglise.entities.WorshipSchedule;
+import com.apedo.gestion_eglise.init.IdSequenceMigration;
+import com.apedo.gestion_eglise.payload.RestoreProgress;
+import com.apedo.gestion_eglise.repositories.PeriodClosingRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+// Restores a backup produced by BackupService. The file is read with a streaming parser and
+// rows are written with JDBC batches of CHUNK_SIZE rows into restore_* staging tables, then
+// copied into the live tables in one short transaction.
+@Service
+public class RestoreService {
+    private static final Logger logger = LoggerFactory.getLogger(RestoreService.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final Set<String> SUPPORTED_VERSIONS = Set.of("1.0", BackupService.BACKUP_VERSION);
+    private static final Duration JOB_TTL = Duration.ofHours(1);
+
+    private static final List<String> MEMBER_COLUMNS = List.of("id", "first_name", "last_name", "matricule",
+            "email", "phone_number", "address", "birth_date", "gender", "profession", "marital_status",
+            "marriage_date", "marriage_place", "arrival_date", "baptism_date", "baptism_location", "departure_date",
+            "departure_reason", "member_group", "status", "added_by");
+    private static final List<String> TRANSACTION_COLUMNS = List.of("id", "date", "type", "category", "amount",
+            "account", "description", "beneficiary", "reference", "added_by");
+    private static final List<String> EVENT_COLUMNS = List.of("id", "title", "date", "time", "type", "location",
+            "description", "organizer", "max_participants", "budget", "photo_count", "added_by");
+    private static final List<String> SCHEDULE_COLUMNS = List.of("id", "day_of_week", "time", "label");
+    private static final List<String> CHURCH_CONFIG_COLUMNS = List.of("id", "church_name", "address", "phone",
+            "email");
+    private static final String STAGING = "restore_";
+    // In copy order: events before the image references pointing to them
+    private static final List<String> STAGED_TABLES = List.of("members", "transactions", "events",
+            "event_image_refs", "worship_schedules", "church_config");
+    private static final List<String> ID_TABLES = List.of("members", "transactions", "events", "worship_schedules",
+            "church_config");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BlobStoreService blobStore;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
+
+    @Autowired
+    private IdSequenceMigration idSequenceMigration;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PeriodClosingRepository periodClosingRepository;
+
+    @Autowired
+    private MemberStatsService memberStatsService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "restore"));
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<String, RestoreProgress> jobs = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Takes ownership of the file and deletes it once the restore is over
+    public RestoreProgress startRestore(Path file, boolean replace) throws IOException {
+        evictFinishedJobs();
+        if (!running.compareAndSet(false, true)) {
+            Files.deleteIfExists(file);
+            throw new IllegalStateException("Une restauration est déjà en cours.");
+        }
+        RestoreProgress progress = new RestoreProgress(UUID.randomUUID().toString(), replace ? "REPLACE" : "MERGE",
+                Files.size(file));
+        jobs.put(progress.getId(), progress);
+        executor.execute(() -> {
+            try {
+                restore(file, replace, progress);
+                progress.finish();
+                logger.info("Restore {} finished: {}", progress.getId(), progress.getRows());
+            } catch (Exception e) {
+                logger.error("Restore {} failed", progress.getId(), e);
+                progress.fail(e.getMessage());
+            } finally {
+                publicSnapshotService.invalidate();
+                memberSearchService.invalidate();
+                memberStatsService.invalidate();
+                running.set(false);
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Could not delete restore file {}", file);
+                }
+            }
+        });
+        return progress;
+    }
+
+    public Optional<RestoreProgress> getProgress(String id) {
+        evictFinishedJobs();
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    // Progress stays readable for JOB_TTL after the end of a restore
+    private void evictFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(JOB_TTL);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit));
+    }
+
+    // The file is first only parsed and checked, so a truncated, corrupt or unknown-version backup
+    // fails before anything is touched. It is then loaded into unlogged copies of the tables, one
+    // transaction per chunk, while the application keeps serving requests. Only the last step,
+    // moving the staged rows into the live tables with INSERT ... SELECT, takes the TRUNCATE locks
+    // (replace mode) or the ledger lock (merge mode), and a failure rolls it back as a whole.
+    private void restore(Path file, boolean replace, RestoreProgress progress) throws IOException {
+        readBackup(file, progress, false);
+        progress.startLoading();
+        createStagingTables();
+        try {
+            readBackup(file, progress, true);
+            progress.startApplying();
+            transactionTemplate.executeWithoutResult(status -> applyStaged(replace, progress));
+        } finally {
+            // Even after a rollback: the sequences may have been moved, the blocks held are stale
+            ResettablePooledOptimizer.reset();
+            dropStagingTables();
+        }
+    }
+
+    // write == false: validation pass, nothing is written
+    private void readBackup(Path file, RestoreProgress progress, boolean write) throws IOException {
+        try (CountingInputStream counting = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+                JsonParser parser = objectMapper.getFactory().createParser(maybeGunzip(counting))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Fichier de sauvegarde invalide.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "version" -> checkVersion(parser.getValueAsString());
+                    case "members" -> readArray(parser, Member.class, "members", counting, progress,
+                            write ? this::stageMembers : null);
+                    case "transactions" -> readArray(parser, Transaction.class, "transactions", counting, progress,
+                            write ? this::stageTransactions : null);
+                    case "events" -> readArray(parser, Event.class, "events", counting, progress,
+                            write ? this::stageEvents : null);
+                    case "worshipSchedules" -> readArray(parser, WorshipSchedule.class, "worshipSchedules", counting,
+                            progress, write ? this::stageSchedules : null);
+                    case "churchConfig" -> readArray(parser, ChurchConfig.class, "churchConfig", counting, progress,
+                            write ? this::stageChurchConfigs : null);
+                    case "images" -> readImages(parser, counting, progress, write);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new IllegalArgumentException("Fichier de sauvegarde invalide.");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Fichier de sauvegarde incomplet ou corrompu : "
+                    + e.getOriginalMessage());
+        }
+    }
+
+    private static void checkVersion(String version) {
+        if (!SUPPORTED_VERSIONS.contains(version)) {
+            throw new IllegalArgumentException("Version de sauvegarde non supportée : " + version);
+        }
+    }
+
+    // writer == null: rows are only parsed
+    private <T> void readArray(JsonParser parser, Class<T> type, String name, CountingInputStream counting,
+            RestoreProgress progress, Consumer<List<T>> writer) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            chunk.add(objectMapper.readValue(parser, type));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, name, counting, progress, writer);
+            }
+        }
+        flush(chunk, name, counting, progress, writer);
+    }
+
+    private <T> void flush(List<T> chunk, String name, CountingInputStream counting, RestoreProgress progress,
+            Consumer<List<T>> writer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (writer != null) {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(chunk));
+            progress.addRows(name, chunk.size());
+        }
+        progress.setBytesRead(counting.getCount());
+        chunk.clear();
+    }
+
+    // Blobs are content-addressed files: an image stored by a restore that then fails is just unused
+    private void readImages(JsonParser parser, CountingInputStream counting, RestoreProgress progress, boolean write)
+            throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String imageId = parser.currentName();
+            parser.nextToken();
+            byte[] content = parser.getBinaryValue();
+            if (write) {
+                String storedId = blobStore.store(content);
+                if (!storedId.equals(imageId)) {
+                    logger.warn("Image {} restored with a different checksum ({})", imageId, storedId);
+                }
+                progress.addRows("images", 1);
+            }
+            progress.setBytesRead(counting.getCount());
+        }
+    }
+
+    // Previous runs that died before cleaning up leave their tables behind: start from empty ones.
+    // Columns and NOT NULL constraints are copied, indexes are not.
+    private void createStagingTables() {
+        dropStagingTables();
+        for (String table : STAGED_TABLES) {
+            jdbcTemplate.execute("CREATE UNLOGGED TABLE " + STAGING + table + " (LIKE " + table
+                    + " INCLUDING DEFAULTS)");
+        }
+    }
+
+    private void dropStagingTables() {
+        try {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + STAGED_TABLES.stream()
+                    .map(table -> STAGING + table)
+                    .collect(Collectors.joining(", ")));
+        } catch (RuntimeException e) {
+            logger.warn("Could not drop the restore staging tables: {}", e.getMessage());
+        }
+    }
+
+    private void stageMembers(List<Member> members) {
+        jdbcTemplate.batchUpdate(stageSql("members", MEMBER_COLUMNS), members.stream()
+                .map(m -> new Object[] { m.getId(), m.getFirstName(), m.getLastName(), m.getMatricule(),
+                        m.getEmail(), m.getPhoneNumber(), m.getAddress(), m.getBirthDate(), m.getGender(),
+                        m.getProfession(), m.getMaritalStatus(), m.getMarriageDate(), m.getMarriagePlace(),
+                        m.getArrivalDate(), m.getBaptismDate(), m.getBaptismLocation(), m.getDepartureDate(),
+                        m.getDepartureReason(), m.getMemberGroup(), m.getStatus(), m.getAddedBy() })
+                .collect(Collectors.toList()));
+    }
+
+    private void stageTransactions(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(stageSql("transactions", TRANSACTION_COLUMNS), transactions.stream()
+                .map(t -> new Object[] { t.getId(), t.getDate(), enumName(t.getType()), t.getCategory(),
+                        t.getAmount(), enumName(t.getAccount()), t.getDescription(), t.getBeneficiary(),
+                        t.getReference(), t.getAddedBy() })
+                .collect(Collectors.toList()));
+    }
+
+    private void stageEvents(List<Event> events) {
+        jdbcTemplate.batchUpdate(stageSql("events", EVENT_COLUMNS), events.stream()
+                .map(e -> new Object[] { e.getId(), e.getTitle(), e.getDate(), e.getTime(), e.getType(),
+                        e.getLocation(), e.getDescription(), e.getOrganizer(), e.getMaxParticipants(),
+                        e.getBudget(), e.getPhotoCount(), e.getAddedBy() })
+                .collect(Collectors.toList()));
+
+        List<Object[]> refs = new ArrayList<>();
+        for (Event event : events) {
+            // Version 1.0 backups carry the Base64 images inline on each event
+            List<String> imageIds = event.getImageIds().isEmpty()
+                    ? eventImageService.storeAll(event.getImages())
+                    : event.getImageIds();
+            for (int i = 0; i < imageIds.size(); i++) {
+                refs.add(new Object[] { event.getId(), i, imageIds.get(i) });
+            }
+        }
+        jdbcTemplate.batchUpdate(stageSql("event_image_refs", List.of("event_id", "position", "image_id")), refs);
+    }
+
+    private void stageSchedules(List<WorshipSchedule> schedules) {
+        jdbcTemplate.batchUpdate(stageSql("worship_schedules", SCHEDULE_COLUMNS), schedules.stream()
+                .map(s -> new Object[] { s.getId(), s.getDayOfWeek(), s.getTime(), s.getLabel() })
+                .collect(Collectors.toList()));
+    }
+
+    private void stageChurchConfigs(List<ChurchConfig> configs) {
+        jdbcTemplate.batchUpdate(stageSql("church_config", CHURCH_CONFIG_COLUMNS), configs.stream()
+                .map(c -> new Object[] { c.getId(), c.getChurchName(), c.getAddress(), c.getPhone(), c.getEmail() })
+                .collect(Collectors.toList()));
+    }
+
+    private void applyStaged(boolean replace, RestoreProgress progress) {
+        LocalDate closedUntil = null;
+        if (replace) {
+            // Period closings describe the ledger being replaced, so they go with it
+            jdbcTemplate.execute("TRUNCATE TABLE event_image_refs, events, transactions, period_closings, "
+                    + "members, worship_schedules, church_config");
+        } else {
+            // Merged transactions must stay out of the closed periods, whose snapshots would no
+            // longer match the ledger; no period can be closed until this transaction commits
+            transactionService.lockLedger();
+            closedUntil = periodClosingRepository.findLastClosingDate().orElse(null);
+            jdbcTemplate.update("DELETE FROM event_image_refs WHERE event_id IN (SELECT id FROM "
+                    + STAGING + "events)");
+        }
+        jdbcTemplate.update(copySql("members", MEMBER_COLUMNS, replace, ""));
+        copyTransactions(replace, closedUntil, progress);
+        jdbcTemplate.update(copySql("events", EVENT_COLUMNS, replace, ""));
+        jdbcTemplate.update(copySql("event_image_refs", List.of("event_id", "position", "image_id"), true, ""));
+        jdbcTemplate.update(copySql("worship_schedules", SCHEDULE_COLUMNS, replace, ""));
+        jdbcTemplate.update(copySql("church_config", CHURCH_CONFIG_COLUMNS, replace, ""));
+        resetIdSequences();
+    }
+
+    // Rows dated in a closed period, or replacing a stored row dated in one, are skipped and
+    // counted under "transactionsRejected"
+    private void copyTransactions(boolean replace, LocalDate closedUntil, RestoreProgress progress) {
+        if (closedUntil == null) {
+            jdbcTemplate.update(copySql("transactions", TRANSACTION_COLUMNS, replace, ""));
+            return;
+        }
+        Long staged = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + STAGING + "transactions", Long.class);
+        int copied = jdbcTemplate.update(copySql("transactions", TRANSACTION_COLUMNS, replace,
+                " s WHERE s.date > ? AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.id = s.id AND t.date <= ?)"),
+                closedUntil, closedUntil);
+        long rejected = (staged != null ? staged : 0) - copied;
+        if (rejected > 0) {
+            progress.addRows("transactionsRejected", (int) rejected);
+            logger.warn("Restore: {} transaction(s) in the period closed on {} skipped", rejected, closedUntil);
+        }
+    }
+
+    // Restored rows keep their ids, so the sequences are moved past them, and the blocks already
+    // reserved by this instance are dropped right after (ResettablePooledOptimizer.reset()) since
+    // they may overlap the restored ids. Sequences are not transactional: the new values are
+    // visible before the commit.
+    private void resetIdSequences() {
+        for (String table : ID_TABLES) {
+            idSequenceMigration.alignSequence(table);
+        }
+    }
+
+    private static String stageSql(String table, List<String> columns) {
+        return "INSERT INTO " + STAGING + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+    }
+
+    // filter: alias and WHERE clause applied to the staging table
+    private static String copySql(String table, List<String> columns, boolean replace, String filter) {
+        String list = String.join(", ", columns);
+        String sql = "INSERT INTO " + table + " (" + list + ") SELECT " + list + " FROM " + STAGING + table + filter;
+        if (replace) {
+            return sql;
+        }
+        // Merge mode: rows already present (same id) are overwritten by the backup
+        return sql + " ON CONFLICT (id) DO UPDATE SET " + columns.stream()
+                .filter(c -> !c.equals("id"))
+                .map(c -> c + " = EXCLUDED." + c)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String enumName(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static InputStream maybeGunzip(InputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        if (b1 == 0x1f && b2 == 0x8b) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return in;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+        private long mark;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            super.mark(readlimit);
+            mark = count;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            super.reset();
+            count = mark;
+        }
+    }
+}
@@ -1,146 +1,301 @@
 package com.apedo.gestion_eglise.services;
 
+import com.apedo.gestion_eglise.entities.PeriodClosing;
 import com.apedo.gestion_eglise.entities.Transaction;
 import com.apedo.gestion_eglise.entities.TransactionType;
 import com.apedo.gestion_eglise.entities.AccountType;
+import com.apedo.gestion_eglise.payload.TransactionPage;
+import com.apedo.gestion_eglise.payload.TransactionQuery;
+import com.apedo.gestion_eglise.repositories.PeriodClosingRepository;
 import com.apedo.gestion_eglise.repositories.TransactionRepository;
+import com.apedo.gestion_eglise.repositories.TransactionSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    private static final int MAX_MONTHS = 240;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort LEDGER_ORDER = Sort.by(Sort.Direction.DESC, "date", "id");
+    // Transaction-scoped advisory lock taken by every write that depends on the last closing date
+    private static final long LEDGER_LOCK_KEY = 0x4c45444745524cL;
 
     private final TransactionRepository transactionRepository;
+    private final PeriodClosingRepository periodClosingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationService notificationService;
 
     public List<Transaction> getAllTransactions() {
         return transactionRepository.findAllByOrderByDateDesc();
     }
 
+    // Newest first, keyset paginated on (date, id)
+    public TransactionPage getLedgerPage(TransactionQuery query) {
+        int size = Math.max(1, Math.min(query.getSize(), MAX_PAGE_SIZE));
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin.");
+        }
+        if (query.getMinAmount() != null && query.getMaxAmount() != null
+                && query.getMinAmount() > query.getMaxAmount()) {
+            throw new IllegalArgumentException("Le montant minimum doit être inférieur au montant maximum.");
+        }
+        Specification<Transaction> filters = TransactionSpecifications.withFilters(query,
+                parseEnum(TransactionType.class, query.getType(), "Type de transaction"),
+                parseEnum(AccountType.class, query.getAccount(), "Compte"));
+        Specification<Transaction> spec = filters;
+        if (StringUtils.hasText(query.getCursor())) {
+            LedgerCursor cursor = LedgerCursor.decode(query.getCursor());
+            spec = spec.and(TransactionSpecifications.before(cursor.date(), cursor.id()));
+        }
+
+        // Fetch one extra row to know whether another page exists without a COUNT
+        List<Transaction> rows = transactionRepository.findBy(spec,
+                q -> q.sortBy(LEDGER_ORDER).limit(size + 1).all());
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            Transaction last = rows.get(size - 1);
+            nextCursor = new LedgerCursor(last.getDate(), last.getId()).encode();
+        }
+
+        double income = 0;
+        double expense = 0;
+        for (Transaction t : rows) {
+            if (t.getAmount() == null) {
+                continue;
+            }
+            if (t.getType() == TransactionType.INCOME) {
+                income += t.getAmount();
+            } else {
+                expense += t.getAmount();
+            }
+        }
+        Long totalCount = query.isIncludeTotal() ? transactionRepository.count(filters) : null;
+        return new TransactionPage(rows, nextCursor, totalCount, income, expense, income - expense);
+    }
+
+    @Transactional
     public Transaction saveTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        lockLedger();
+        periodClosingRepository.findLastClosingDate().ifPresent(lastClosing -> {
+            if (transaction.getDate() != null && !transaction.getDate().isAfter(lastClosing)) {
+                throw new IllegalArgumentException("La période jusqu'au " + lastClosing + " est clôturée.");
+            }
+        });
+        Transaction saved = transactionRepository.save(transaction);
+        // Same transaction as the save: the notification exists if and only if the transaction does
+        notificationService.createNotification(
+                "Nouvelle transaction",
+                "Une transaction de " + saved.getAmount() + " (" + saved.getType() + ") a été enregistrée.",
+                "FINANCE");
+        return saved;
     }
 
+    // Balances = last closing snapshot + one grouped query over the transactions after it
     public Map<String, Object> getTreasuryStatistics() {
-        Double totalIncome = transactionRepository.sumAmountByType(TransactionType.INCOME);
-        Double totalExpense = transactionRepository.sumAmountByType(TransactionType.EXPENSE);
-
-        totalIncome = totalIncome != null ? totalIncome : 0.0;
-        totalExpense = totalExpense != null ? totalExpense : 0.0;
-
-        Double incomeCaisse = transactionRepository.sumAmountByTypeAndAccount(TransactionType.INCOME,
-                AccountType.CAISSE);
-        Double expenseCaisse = transactionRepository.sumAmountByTypeAndAccount(TransactionType.EXPENSE,
-                AccountType.CAISSE);
-        incomeCaisse = incomeCaisse != null ? incomeCaisse : 0.0;
-        expenseCaisse = expenseCaisse != null ? expenseCaisse : 0.0;
-
-        Double incomeBanque = transactionRepository.sumAmountByTypeAndAccount(TransactionType.INCOME,
-                AccountType.BANQUE);
-        Double expenseBanque = transactionRepository.sumAmountByTypeAndAccount(TransactionType.EXPENSE,
-                AccountType.BANQUE);
-        incomeBanque = incomeBanque != null ? incomeBanque : 0.0;
-        expenseBanque = expenseBanque != null ? expenseBanque : 0.0;
-
-        // Calculate real balances from transactions only (income - expense)
-        double currentCaisse = incomeCaisse - expenseCaisse;
-        double currentBanque = incomeBanque - expenseBanque;
+        Optional<LocalDate> lastClosing = periodClosingRepository.findLastClosingDate();
+        Map<AccountType, double[]> totals = emptyTotals();
+        lastClosing.ifPresent(date -> periodClosingRepository.findByClosingDate(date).forEach(closing -> {
+            double[] t = totals.get(closing.getAccount());
+            t[0] += closing.getTotalIncome();
+            t[1] += closing.getTotalExpense();
+        }));
+
+        double soldeCaisseAnterieur = balance(totals, AccountType.CAISSE);
+        double soldeBanqueAnterieur = balance(totals, AccountType.BANQUE);
+
+        addSums(totals, lastClosing.map(transactionRepository::sumAmountByAccountAndTypeAfter)
+                .orElseGet(transactionRepository::sumAmountByAccountAndType));
+
+        double currentCaisse = balance(totals, AccountType.CAISSE);
+        double currentBanque = balance(totals, AccountType.BANQUE);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalIncome", totalIncome);
-        stats.put("totalExpense", totalExpense);
-        stats.put("soldeCaisseAnterieur", 0.0);
-        stats.put("soldeBanqueAnterieur", 0.0);
+        stats.put("totalIncome", totals.get(AccountType.CAISSE)[0] + totals.get(AccountType.BANQUE)[0]);
+        stats.put("totalExpense", totals.get(AccountType.CAISSE)[1] + totals.get(AccountType.BANQUE)[1]);
+        stats.put("soldeCaisseAnterieur", soldeCaisseAnterieur);
+        stats.put("soldeBanqueAnterieur", soldeBanqueAnterieur);
         stats.put("currentCaisseBalance", currentCaisse);
         stats.put("currentBanqueBalance", currentBanque);
         stats.put("totalBalance", currentCaisse + currentBanque);
+        stats.put("lastClosingDate", lastClosing.orElse(null));
 
         return stats;
     }
 
-    public List<Map<String, Object>> getMonthlyStats() {
-        List<Object[]> incomeData = transactionRepository.sumAmountByMonth(TransactionType.INCOME);
-        List<Object[]> expenseData = transactionRepository.sumAmountByMonth(TransactionType.EXPENSE);
-
-        Map<String, Map<String, Object>> mergedData = new TreeMap<>(Collections.reverseOrder());
+    public List<PeriodClosing> getClosings() {
+        return periodClosingRepository.findAllByOrderByClosingDateDescAccountAsc();
+    }
 
-        // Process income
-        for (Object[] row : incomeData) {
-            if (row == null || row.length < 3)
-                continue;
-            int month = ((Number) row[0]).intValue();
-            int year = ((Number) row[1]).intValue();
-            double amount = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
-            String key = String.format("%04d-%02d", year, month);
-
-            Map<String, Object> monthData = mergedData.computeIfAbsent(key, k -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("month", month);
-                m.put("year", year);
-                m.put("income", 0.0);
-                m.put("expense", 0.0);
-                try {
-                    m.put("name",
-                            LocalDate.of(year, month, 1).getMonth().getDisplayName(TextStyle.SHORT, Locale.FRENCH));
-                } catch (Exception e) {
-                    m.put("name", month + "/" + year);
-                }
-                return m;
-            });
-            monthData.put("income", amount);
+    @Transactional
+    public List<PeriodClosing> closePeriod(LocalDate closingDate, String closedBy) {
+        if (closingDate == null) {
+            throw new IllegalArgumentException("La date de clôture est requise.");
         }
-
-        // Process expenses
-        for (Object[] row : expenseData) {
-            if (row == null || row.length < 3)
-                continue;
-            int month = ((Number) row[0]).intValue();
-            int year = ((Number) row[1]).intValue();
-            double amount = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
-            String key = String.format("%04d-%02d", year, month);
-
-            Map<String, Object> monthData = mergedData.computeIfAbsent(key, k -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("month", month);
-                m.put("year", year);
-                m.put("income", 0.0);
-                m.put("expense", 0.0);
-                try {
-                    m.put("name",
-                            LocalDate.of(year, month, 1).getMonth().getDisplayName(TextStyle.SHORT, Locale.FRENCH));
-                } catch (Exception e) {
-                    m.put("name", month + "/" + year);
-                }
-                return m;
-            });
-            monthData.put("expense", amount);
+        if (closingDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Impossible de clôturer une période future.");
         }
+        lockLedger();
+        Optional<LocalDate> lastClosing = periodClosingRepository.findLastClosingDate();
+        if (lastClosing.isPresent() && !closingDate.isAfter(lastClosing.get())) {
+            throw new IllegalArgumentException("La date de clôture doit être postérieure au " + lastClosing.get() + ".");
+        }
+
+        Map<AccountType, double[]> totals = emptyTotals();
+        lastClosing.ifPresent(date -> periodClosingRepository.findByClosingDate(date).forEach(closing -> {
+            double[] t = totals.get(closing.getAccount());
+            t[0] += closing.getTotalIncome();
+            t[1] += closing.getTotalExpense();
+        }));
+        addSums(totals, lastClosing
+                .map(date -> transactionRepository.sumAmountByAccountAndTypeBetween(date, closingDate))
+                .orElseGet(() -> transactionRepository.sumAmountByAccountAndTypeUntil(closingDate)));
 
-        // Take the last 6 months (they are already sorted DESC by key)
-        List<Map<String, Object>> result = new ArrayList<>(mergedData.values());
-        if (result.size() > 6) {
-            result = result.subList(0, 6);
+        List<PeriodClosing> closings = new ArrayList<>();
+        for (AccountType account : AccountType.values()) {
+            double[] t = totals.get(account);
+            PeriodClosing closing = new PeriodClosing();
+            closing.setClosingDate(closingDate);
+            closing.setAccount(account);
+            closing.setTotalIncome(t[0]);
+            closing.setTotalExpense(t[1]);
+            closing.setBalance(t[0] - t[1]);
+            closing.setClosedBy(closedBy);
+            closings.add(closing);
         }
+        return periodClosingRepository.saveAll(closings);
+    }
 
-        // Reverse to have chronological order (ASC) for chart
-        Collections.reverse(result);
+    @Transactional
+    public Optional<LocalDate> reopenLastPeriod() {
+        lockLedger();
+        Optional<LocalDate> lastClosing = periodClosingRepository.findLastClosingDate();
+        lastClosing.ifPresent(periodClosingRepository::deleteByClosingDate);
+        return lastClosing;
+    }
+
+    // One grouped query over [from, to], pivoted by type and account in memory.
+    // Months without transactions are returned with zeros so the chart has no gaps.
+    public List<Map<String, Object>> getMonthlyStats(int months, LocalDate from, LocalDate to) {
+        YearMonth lastMonth = YearMonth.from(to != null ? to : LocalDate.now());
+        YearMonth firstMonth = from != null
+                ? YearMonth.from(from)
+                : lastMonth.minusMonths(Math.max(1, Math.min(months, MAX_MONTHS)) - 1L);
+        if (firstMonth.isAfter(lastMonth)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin.");
+        }
+        if (firstMonth.plusMonths(MAX_MONTHS - 1L).isBefore(lastMonth)) {
+            throw new IllegalArgumentException("La période demandée dépasse " + MAX_MONTHS + " mois.");
+        }
 
-        // If empty, add current month with 0 to avoid empty chart issues
-        if (result.isEmpty()) {
-            LocalDate now = LocalDate.now();
+        Map<YearMonth, Map<String, Object>> byMonth = new LinkedHashMap<>();
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
             Map<String, Object> m = new HashMap<>();
-            m.put("month", now.getMonthValue());
-            m.put("year", now.getYear());
+            m.put("month", month.getMonthValue());
+            m.put("year", month.getYear());
+            m.put("name", month.getMonth().getDisplayName(TextStyle.SHORT, Locale.FRENCH));
             m.put("income", 0.0);
             m.put("expense", 0.0);
-            m.put("name", now.getMonth().getDisplayName(TextStyle.SHORT, Locale.FRENCH));
-            result.add(m);
+            m.put("incomeCaisse", 0.0);
+            m.put("incomeBanque", 0.0);
+            m.put("expenseCaisse", 0.0);
+            m.put("expenseBanque", 0.0);
+            byMonth.put(month, m);
+        }
+
+        List<Object[]> rows = transactionRepository.sumAmountByMonthTypeAndAccount(
+                from != null ? from : firstMonth.atDay(1),
+                to != null ? to : lastMonth.atEndOfMonth());
+        for (Object[] row : rows) {
+            if (row == null || row.length < 5 || row[2] == null || row[3] == null || row[4] == null)
+                continue;
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            Map<String, Object> m = byMonth.get(month);
+            if (m == null)
+                continue;
+            String type = row[2] == TransactionType.INCOME ? "income" : "expense";
+            String account = row[3] == AccountType.CAISSE ? "Caisse" : "Banque";
+            double amount = ((Number) row[4]).doubleValue();
+            m.merge(type, amount, (a, b) -> (Double) a + (Double) b);
+            m.merge(type + account, amount, (a, b) -> (Double) a + (Double) b);
+        }
+
+        return new ArrayList<>(byMonth.values());
+    }
+
+    // Serializes the closed-period check of a write with closePeriod/reopenLastPeriod: without it a
+    // transaction could be saved into a period being closed and miss its snapshot. Held until the
+    // end of the caller's transaction.
+    public void lockLedger() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LEDGER_LOCK_KEY + ")");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(label + " inconnu : " + value);
+        }
+    }
+
+    // Position of the last row of a page, opaque to the client: base64url("date|id")
+    record LedgerCursor(LocalDate date, Long id) {
+        String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
         }
 
-        return result;
+        static LedgerCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Curseur de pagination invalide.");
+                }
+                return new LedgerCursor(LocalDate.parse(raw.substring(0, separator)),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+        }
+    }
+
+    private static Map<AccountType, double[]> emptyTotals() {
+        // [0] = income, [1] = expense
+        Map<AccountType, double[]> totals = new EnumMap<>(AccountType.class);
+        for (AccountType account : AccountType.values()) {
+            totals.put(account, new double[2]);
+        }
+        return totals;
+    }
+
+    private static void addSums(Map<AccountType, double[]> totals, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row == null || row.length < 3 || row[0] == null || row[1] == null || row[2] == null)
+                continue;
+            double[] t = totals.get((AccountType) row[0]);
+            t[row[1] == TransactionType.INCOME ? 0 : 1] += ((Number) row[2]).doubleValue();
+        }
+    }
+
+    private static double balance(Map<AccountType, double[]> totals, AccountType account) {
+        double[] t = totals.get(account);
+        return t[0] - t[1];
     }
 }
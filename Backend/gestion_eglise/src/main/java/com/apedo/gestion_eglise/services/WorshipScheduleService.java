@@ -13,6 +13,9 @@ public class WorshipScheduleService {
     @Autowired
     private WorshipScheduleRepository repository;
 
+    @Autowired
+    private PublicSnapshotService publicSnapshotService;
+
     public List<WorshipSchedule> getAllSchedules() {
         return repository.findAll();
     }
@@ -22,10 +25,13 @@ public class WorshipScheduleService {
     }
 
     public WorshipSchedule saveSchedule(WorshipSchedule schedule) {
-        return repository.save(schedule);
+        WorshipSchedule saved = repository.save(schedule);
+        publicSnapshotService.invalidate();
+        return saved;
     }
 
     public void deleteSchedule(Long id) {
         repository.deleteById(id);
+        publicSnapshotService.invalidate();
     }
 }
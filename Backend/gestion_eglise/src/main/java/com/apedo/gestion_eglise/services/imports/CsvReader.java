@@ -0,0 +1,121 @@
+package com.apedo.gestion_eglise.services.imports;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 reader (quoted fields, doubled quotes, line breaks inside quotes). The separator is
+// taken from the header line: ';' as written by a French Excel, ',' otherwise. The encoding is
+// UTF-8 unless the start of the file is not valid UTF-8, in which case it is read as windows-1252,
+// the encoding of a "CSV (séparateur : point-virgule)" saved by a French Excel.
+public class CsvReader implements TabularReader {
+    private static final char BOM = '\uFEFF';
+    private static final int HEADER_LOOKAHEAD = 64 * 1024;
+    private static final int CHARSET_SAMPLE = 256 * 1024;
+    static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private final PushbackReader reader;
+    private final char separator;
+    private int rowNumber;
+
+    public CsvReader(InputStream input) throws IOException {
+        BufferedInputStream bytes = new BufferedInputStream(input, CHARSET_SAMPLE);
+        BufferedReader buffered = new BufferedReader(new InputStreamReader(bytes, detectCharset(bytes)));
+        buffered.mark(HEADER_LOOKAHEAD);
+        String header = buffered.readLine();
+        buffered.reset();
+        if (header != null && !header.isEmpty() && header.charAt(0) == BOM) {
+            buffered.read();
+        }
+        this.separator = header != null && count(header, ';') > count(header, ',') ? ';' : ',';
+        this.reader = new PushbackReader(buffered, 1);
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        rowNumber++;
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Guillemet non fermé en fin de fichier");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == separator) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = reader.read();
+                    if (next != '\n' && next != -1) {
+                        reader.unread(next);
+                    }
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    // Only a sample is checked: the input is streamed, and a file that is valid UTF-8 that far is
+    // UTF-8 in practice. A multi-byte sequence cut by the end of the sample is not an error.
+    static Charset detectCharset(BufferedInputStream input) throws IOException {
+        input.mark(CHARSET_SAMPLE);
+        byte[] sample = input.readNBytes(CHARSET_SAMPLE);
+        input.reset();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CoderResult result = decoder.decode(ByteBuffer.wrap(sample), CharBuffer.allocate(sample.length),
+                sample.length < CHARSET_SAMPLE);
+        return result.isError() ? WINDOWS_1252 : StandardCharsets.UTF_8;
+    }
+
+    private static long count(String line, char c) {
+        return line.chars().filter(ch -> ch == c).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,14 @@
+package com.apedo.gestion_eglise.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Row-by-row access to an uploaded spreadsheet; the first row returned is the header
+public interface TabularReader extends Closeable {
+    // Null at the end of the file
+    List<String> nextRow() throws IOException;
+
+    // Position of the last row returned, as the user sees it in the file (header = 1)
+    int rowNumber();
+}
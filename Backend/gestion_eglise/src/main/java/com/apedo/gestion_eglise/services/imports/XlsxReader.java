@@ -0,0 +1,233 @@
+package com.apedo.gestion_eglise.services.imports;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Streams the first worksheet of an .xlsx file with StAX, so memory does not grow with the
+// number of rows; only the shared string table is held (one entry per distinct text).
+// Dates come out as Excel serial numbers, numbers as plain decimal strings.
+public class XlsxReader implements TabularReader {
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private int rowNumber;
+
+    public XlsxReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry entry = zip.getEntry(firstSheetPath());
+            if (entry == null) {
+                throw new IOException("Aucune feuille trouvée dans le classeur");
+            }
+            this.sheetStream = zip.getInputStream(entry);
+            this.sheet = XML.createXMLStreamReader(sheetStream);
+        } catch (XMLStreamException | IOException e) {
+            zip.close();
+            throw e instanceof IOException io ? io : new IOException("Classeur illisible : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String r = sheet.getAttributeValue(null, "r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Feuille illisible près de la ligne " + rowNumber + " : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    // Cells may be sparse (empty cells are omitted): their reference gives the column
+    private List<String> readRow() throws XMLStreamException {
+        List<String> row = new ArrayList<>();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                return row;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                String ref = sheet.getAttributeValue(null, "r");
+                String type = sheet.getAttributeValue(null, "t");
+                int column = ref != null ? columnIndex(ref) : row.size();
+                String value = readCell(type);
+                while (row.size() < column) {
+                    row.add("");
+                }
+                row.add(value);
+            }
+        }
+        return row;
+    }
+
+    private String readCell(String type) throws XMLStreamException {
+        String raw = null;
+        StringBuilder inline = new StringBuilder();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("v".equals(sheet.getLocalName())) {
+                    raw = sheet.getElementText();
+                } else if ("t".equals(sheet.getLocalName())) {
+                    inline.append(sheet.getElementText());
+                }
+            }
+        }
+        if ("inlineStr".equals(type)) {
+            return inline.toString();
+        }
+        if (raw == null) {
+            return "";
+        }
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(raw.trim());
+            return index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if (type == null || "n".equals(type)) {
+            // 1.0E10-style values for long phone numbers
+            try {
+                return new BigDecimal(raw.trim()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return raw;
+            }
+        }
+        return raw;
+    }
+
+    private static int columnIndex(String ref) {
+        int index = 0;
+        for (int i = 0; i < ref.length() && Character.isLetter(ref.charAt(i)); i++) {
+            index = index * 26 + (Character.toUpperCase(ref.charAt(i)) - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    // <si> holds either one <t> or rich-text runs <r><t>; phonetic hints (<rPh>) are skipped
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            StringBuilder current = null;
+            boolean phonetic = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> current = new StringBuilder();
+                        case "rPh" -> phonetic = true;
+                        case "t" -> {
+                            String text = xml.getElementText();
+                            if (current != null && !phonetic) {
+                                current.append(text);
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("rPh".equals(xml.getLocalName())) {
+                        phonetic = false;
+                    } else if ("si".equals(xml.getLocalName()) && current != null) {
+                        strings.add(current.toString());
+                        current = null;
+                    }
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    // First <sheet> of workbook.xml, resolved through the workbook relationships
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relationId = firstAttribute("xl/workbook.xml", "sheet", "id");
+        if (relationId != null) {
+            ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+            if (rels != null) {
+                try (InputStream in = zip.getInputStream(rels)) {
+                    XMLStreamReader xml = XML.createXMLStreamReader(in);
+                    while (xml.hasNext()) {
+                        if (xml.next() == XMLStreamConstants.START_ELEMENT
+                                && "Relationship".equals(xml.getLocalName())
+                                && relationId.equals(xml.getAttributeValue(null, "Id"))) {
+                            String target = xml.getAttributeValue(null, "Target");
+                            return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                        }
+                    }
+                }
+            }
+        }
+        return "xl/worksheets/sheet1.xml";
+    }
+
+    // Attribute looked up by local name, whatever its namespace prefix (r:id)
+    private String firstAttribute(String entryName, String element, String attribute)
+            throws IOException, XMLStreamException {
+        ZipEntry entry = zip.getEntry(entryName);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && element.equals(xml.getLocalName())) {
+                    for (int i = 0; i < xml.getAttributeCount(); i++) {
+                        if (attribute.equals(xml.getAttributeLocalName(i))
+                                && xml.getAttributeNamespace(i) != null) {
+                            return xml.getAttributeValue(i);
+                        }
+                    }
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            // the zip is closed below anyway
+        }
+        sheetStream.close();
+        zip.close();
+    }
+}
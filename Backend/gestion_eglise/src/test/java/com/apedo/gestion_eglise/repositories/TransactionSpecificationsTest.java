@@ -0,0 +1,56 @@
+package com.apedo.gestion_eglise.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionSpecificationsTest {
+
+    @Test
+    void searchesWholeYear() {
+        assertThat(TransactionSpecifications.searchDateRange("2024"))
+                .containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+    }
+
+    @Test
+    void searchesMonthInBothNotations() {
+        LocalDate[] expected = { LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29) };
+
+        assertThat(TransactionSpecifications.searchDateRange("2024-02")).containsExactly(expected);
+        assertThat(TransactionSpecifications.searchDateRange("2/2024")).containsExactly(expected);
+    }
+
+    @Test
+    void searchesSingleDayInBothNotations() {
+        LocalDate day = LocalDate.of(2024, 3, 7);
+
+        assertThat(TransactionSpecifications.searchDateRange("2024-3-7")).containsExactly(day, day);
+        assertThat(TransactionSpecifications.searchDateRange("07/03/2024")).containsExactly(day, day);
+    }
+
+    @Test
+    void ignoresTermsThatAreNotDates() {
+        assertThat(TransactionSpecifications.searchDateRange("5000")).isNull();
+        assertThat(TransactionSpecifications.searchDateRange("2024-13")).isNull();
+        assertThat(TransactionSpecifications.searchDateRange("31/02/2024")).isNull();
+        assertThat(TransactionSpecifications.searchDateRange("dîme")).isNull();
+    }
+
+    @Test
+    void parsesDisplayedAndTypedAmounts() {
+        assertThat(TransactionSpecifications.searchAmount("5000")).isEqualTo(5000.0);
+        assertThat(TransactionSpecifications.searchAmount("5 000")).isEqualTo(5000.0);
+        assertThat(TransactionSpecifications.searchAmount("5 000 FCFA")).isEqualTo(5000.0);
+        assertThat(TransactionSpecifications.searchAmount("5 000 fcfa")).isEqualTo(5000.0);
+        assertThat(TransactionSpecifications.searchAmount("5000,50")).isEqualTo(5000.5);
+    }
+
+    @Test
+    void ignoresTermsThatAreNotAmounts() {
+        assertThat(TransactionSpecifications.searchAmount("offrande")).isNull();
+        assertThat(TransactionSpecifications.searchAmount("FCFA")).isNull();
+        assertThat(TransactionSpecifications.searchAmount("1,2,3")).isNull();
+    }
+}
@@ -0,0 +1,80 @@
+package com.apedo.gestion_eglise.security;
+
+import com.apedo.gestion_eglise.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void allowsBurstThenThrottlesEmail() {
+        LoginRateLimiter limiter = limiter(3, 1, 100, 1);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check("Ama@Eglise.tg", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.check(" ama@eglise.tg ", "10.0.0.9"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(1L, 61L));
+        assertThat(registry.get("auth.login.throttled").tag("scope", "email").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsAreIndependentPerEmail() {
+        LoginRateLimiter limiter = limiter(1, 1, 100, 1);
+
+        limiter.check("ama@eglise.tg", "10.0.0.1");
+        limiter.check("kofi@eglise.tg", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.check("ama@eglise.tg", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void throttlesIpAcrossEmails() {
+        LoginRateLimiter limiter = limiter(100, 1, 2, 1);
+
+        limiter.check("a@eglise.tg", "10.0.0.1");
+        limiter.check("b@eglise.tg", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.check("c@eglise.tg", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        limiter.check("c@eglise.tg", "10.0.0.2");
+        assertThat(registry.get("auth.login.throttled").tag("scope", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resetRefillsEmailBucket() {
+        LoginRateLimiter limiter = limiter(1, 1, 100, 1);
+        limiter.check("ama@eglise.tg", null);
+
+        limiter.reset("AMA@eglise.tg");
+
+        limiter.check("ama@eglise.tg", null);
+    }
+
+    @Test
+    void evictIdleKeepsBucketsStillWaiting() {
+        LoginRateLimiter limiter = limiter(1, 1, 100, 1);
+        limiter.check("ama@eglise.tg", null);
+
+        limiter.evictIdle();
+
+        assertThatThrownBy(() -> limiter.check("ama@eglise.tg", null)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private LoginRateLimiter limiter(int emailCapacity, int emailPerMinute, int ipCapacity, int ipPerMinute) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        return new LoginRateLimiter(emailCapacity, emailPerMinute, ipCapacity, ipPerMinute,
+                beans.getBeanProvider(MeterRegistry.class));
+    }
+}
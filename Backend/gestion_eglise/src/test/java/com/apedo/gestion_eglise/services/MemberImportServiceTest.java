@@ -0,0 +1,42 @@
+package com.apedo.gestion_eglise.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberImportServiceTest {
+
+    @Test
+    void parsesIsoDateAndDateTime() {
+        assertThat(MemberImportService.parseDate("1985-03-07")).isEqualTo(LocalDate.of(1985, 3, 7));
+        assertThat(MemberImportService.parseDate("1985-03-07T00:00:00")).isEqualTo(LocalDate.of(1985, 3, 7));
+    }
+
+    @Test
+    void parsesFrenchDate() {
+        assertThat(MemberImportService.parseDate("07/03/1985")).isEqualTo(LocalDate.of(1985, 3, 7));
+        assertThat(MemberImportService.parseDate("7/3/1985")).isEqualTo(LocalDate.of(1985, 3, 7));
+    }
+
+    @Test
+    void parsesExcelSerial() {
+        assertThat(MemberImportService.parseDate("31113")).isEqualTo(LocalDate.of(1985, 3, 7));
+        assertThat(MemberImportService.parseDate("45382.5")).isEqualTo(LocalDate.of(2024, 3, 31));
+    }
+
+    @Test
+    void rejectsBareYearInsteadOfReadingItAsSerial() {
+        assertThatThrownBy(() -> MemberImportService.parseDate("1985")).isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void rejectsInvalidDates() {
+        assertThatThrownBy(() -> MemberImportService.parseDate("31/02/1985"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> MemberImportService.parseDate("hier")).isInstanceOf(DateTimeParseException.class);
+    }
+}
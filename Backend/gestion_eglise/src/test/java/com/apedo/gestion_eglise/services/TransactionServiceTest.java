@@ -0,0 +1,49 @@
+package com.apedo.gestion_eglise.services;
+
+import com.apedo.gestion_eglise.services.TransactionService.LedgerCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionServiceTest {
+
+    @Test
+    void cursorRoundTrips() {
+        LedgerCursor cursor = new LedgerCursor(LocalDate.of(2024, 3, 31), 1234L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(LedgerCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorIsBase64UrlOfDateAndId() {
+        String encoded = new LedgerCursor(LocalDate.of(2024, 1, 5), 7L).encode();
+
+        assertThat(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8))
+                .isEqualTo("2024-01-05|7");
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> LedgerCursor.decode("pas du base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Curseur de pagination invalide.");
+        assertThatThrownBy(() -> LedgerCursor.decode(encode("2024-01-05")))
+                .hasMessage("Curseur de pagination invalide.");
+        assertThatThrownBy(() -> LedgerCursor.decode(encode("2024-13-05|7")))
+                .hasMessage("Curseur de pagination invalide.");
+        assertThatThrownBy(() -> LedgerCursor.decode(encode("2024-01-05|abc")))
+                .hasMessage("Curseur de pagination invalide.");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
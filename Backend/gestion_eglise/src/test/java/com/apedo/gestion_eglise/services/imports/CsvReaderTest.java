@@ -0,0 +1,109 @@
+package com.apedo.gestion_eglise.services.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsSemicolonSeparatedFileWithBom() throws IOException {
+        List<List<String>> rows = readAll("\uFEFFNom;Prénom\r\nKoffi;Ama\r\n", StandardCharsets.UTF_8);
+
+        assertThat(rows).containsExactly(List.of("Nom", "Prénom"), List.of("Koffi", "Ama"));
+    }
+
+    @Test
+    void picksCommaWhenHeaderHasMoreCommasThanSemicolons() throws IOException {
+        List<List<String>> rows = readAll("nom,prenom,note\nKoffi,Ama,a;b\n", StandardCharsets.UTF_8);
+
+        assertThat(rows).containsExactly(List.of("nom", "prenom", "note"), List.of("Koffi", "Ama", "a;b"));
+    }
+
+    @Test
+    void handlesQuotesDoubledQuotesAndLineBreaksInsideQuotes() throws IOException {
+        String csv = "nom;adresse\n\"Koffi; Ama\";\"12 rue \"\"A\"\"\r\nLomé\"\n";
+
+        List<List<String>> rows = readAll(csv, StandardCharsets.UTF_8);
+
+        assertThat(rows).containsExactly(List.of("nom", "adresse"), List.of("Koffi; Ama", "12 rue \"A\"\r\nLomé"));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndLastLineWithoutNewline() throws IOException {
+        List<List<String>> rows = readAll("a;b;c\n;;\n1;;3", StandardCharsets.UTF_8);
+
+        assertThat(rows).containsExactly(List.of("a", "b", "c"), List.of("", "", ""), List.of("1", "", "3"));
+    }
+
+    @Test
+    void countsRowsNotPhysicalLines() throws IOException {
+        try (CsvReader reader = reader("a;b\n\"x\ny\";z\nlast;row\n", StandardCharsets.UTF_8)) {
+            reader.nextRow();
+            reader.nextRow();
+            assertThat(reader.nextRow()).containsExactly("last", "row");
+            assertThat(reader.rowNumber()).isEqualTo(3);
+            assertThat(reader.nextRow()).isNull();
+        }
+    }
+
+    @Test
+    void rejectsUnclosedQuote() throws IOException {
+        try (CsvReader reader = reader("a;b\n\"ouvert;b\n", StandardCharsets.UTF_8)) {
+            reader.nextRow();
+            assertThatThrownBy(reader::nextRow).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void readsWindows1252FileSavedByFrenchExcel() throws IOException {
+        List<List<String>> rows = readAll("Nom;Prénom\nAgbéko;Élodie\n", CsvReader.WINDOWS_1252);
+
+        assertThat(rows).containsExactly(List.of("Nom", "Prénom"), List.of("Agbéko", "Élodie"));
+    }
+
+    @Test
+    void detectsUtf8AndWindows1252() throws IOException {
+        assertThat(detect("Prénom".getBytes(StandardCharsets.UTF_8))).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(detect("Prénom".getBytes(CsvReader.WINDOWS_1252))).isEqualTo(CsvReader.WINDOWS_1252);
+        assertThat(detect(new byte[0])).isEqualTo(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void detectionDoesNotConsumeInput() throws IOException {
+        byte[] bytes = "abc".getBytes(StandardCharsets.UTF_8);
+        BufferedInputStream input = new BufferedInputStream(new ByteArrayInputStream(bytes));
+
+        CsvReader.detectCharset(input);
+
+        assertThat(input.readAllBytes()).isEqualTo(bytes);
+    }
+
+    private static Charset detect(byte[] bytes) throws IOException {
+        return CsvReader.detectCharset(new BufferedInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static CsvReader reader(String content, Charset charset) throws IOException {
+        return new CsvReader(new ByteArrayInputStream(content.getBytes(charset)));
+    }
+
+    private static List<List<String>> readAll(String content, Charset charset) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvReader reader = reader(content, charset)) {
+            List<String> row;
+            while ((row = reader.nextRow()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
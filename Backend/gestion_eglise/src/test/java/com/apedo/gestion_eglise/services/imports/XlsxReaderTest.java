@@ -0,0 +1,96 @@
+package com.apedo.gestion_eglise.services.imports;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsxReaderTest {
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsSharedStringsNumbersAndSparseCells() throws IOException {
+        Path file = workbook("worksheets/sheet1.xml", """
+                <worksheet xmlns="%s"><sheetData>
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c><c r="C1" t="s"><v>2</v></c></row>
+                <row r="3"><c r="A3" t="inlineStr"><is><t>Koffi</t></is></c><c r="C3"><v>31048</v></c></row>
+                <row r="4"><c r="B4"><v>2.28901234E8</v></c><c r="C4"><v>1.50</v></c></row>
+                </sheetData></worksheet>""".formatted(MAIN_NS));
+
+        try (XlsxReader reader = new XlsxReader(file)) {
+            assertThat(reader.nextRow()).containsExactly("Nom", "Prénom", "Date de naissance");
+            assertThat(reader.nextRow()).containsExactly("Koffi", "", "31048");
+            assertThat(reader.rowNumber()).isEqualTo(3);
+            assertThat(reader.nextRow()).containsExactly("", "228901234", "1.5");
+            assertThat(reader.nextRow()).isNull();
+        }
+    }
+
+    @Test
+    void followsWorkbookRelationshipToFirstSheet() throws IOException {
+        Path file = workbook("worksheets/membres.xml", """
+                <worksheet xmlns="%s"><sheetData>
+                <row r="1"><c r="AA1" t="inlineStr"><is><t>loin</t></is></c></row>
+                </sheetData></worksheet>""".formatted(MAIN_NS));
+
+        try (XlsxReader reader = new XlsxReader(file)) {
+            List<String> row = reader.nextRow();
+            assertThat(row).hasSize(27);
+            assertThat(row.get(26)).isEqualTo("loin");
+        }
+    }
+
+    @Test
+    void rejectsWorkbookWithoutSheet() throws IOException {
+        Path file = dir.resolve("vide.xlsx");
+        write(file, Map.of("xl/workbook.xml", "<workbook xmlns=\"" + MAIN_NS + "\"/>"));
+
+        assertThatThrownBy(() -> new XlsxReader(file)).isInstanceOf(IOException.class);
+    }
+
+    private Path workbook(String sheetTarget, String sheetXml) throws IOException {
+        Path file = dir.resolve("membres.xlsx");
+        write(file, Map.of(
+                "xl/workbook.xml", """
+                        <workbook xmlns="%s" xmlns:r="%s"><sheets>
+                        <sheet name="Membres" sheetId="1" r:id="rId1"/>
+                        </sheets></workbook>""".formatted(MAIN_NS, REL_NS),
+                "xl/_rels/workbook.xml.rels", """
+                        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                        <Relationship Id="rId1" Target="%s"/>
+                        </Relationships>""".formatted(sheetTarget),
+                "xl/sharedStrings.xml", """
+                        <sst xmlns="%s">
+                        <si><t>Nom</t></si>
+                        <si><r><t>Pré</t></r><r><t>nom</t></r><rPh><t>ignored</t></rPh></si>
+                        <si><t>Date de naissance</t></si>
+                        </sst>""".formatted(MAIN_NS),
+                "xl/" + sheetTarget, sheetXml));
+        return file;
+    }
+
+    private static void write(Path file, Map<String, String> entries) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+    }
+}
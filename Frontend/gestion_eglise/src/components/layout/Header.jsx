@@ -1,6 +1,7 @@
 import { useState, useEffect } from 'react';
 import { Bell, Search, Menu, X, Check } from 'lucide-react';
 import { API_URLS } from '@/lib/api.jsBase';
+import { refreshSession } from '@/lib/session';
 
 export function Header({ onMenuClick }) {
     const [userName, setUserName] = useState('Admin');
@@ -10,19 +11,23 @@ export function Header({ onMenuClick }) {
     const [unreadCount, setUnreadCount] = useState(0);
     const [showNotifications, setShowNotifications] = useState(false);
 
-    const fetchNotifications = async () => {
+    const [nextCursor, setNextCursor] = useState(null);
+
+    const fetchNotifications = async (cursor = null) => {
         const user = JSON.parse(localStorage.getItem('user') || '{}');
         if (!user.email || !user.token) return;
 
         try {
-            const response = await fetch(`${API_URLS.NOTIFICATIONS}?email=${user.email}`, {
+            const params = new URLSearchParams({ email: user.email });
+            if (cursor) params.append('cursor', cursor);
+            const response = await fetch(`${API_URLS.NOTIFICATIONS}?${params}`, {
                 headers: { 'Authorization': `Bearer ${user.token}` }
             });
             if (response.ok) {
                 const data = await response.json();
-                setNotifications(data);
-                const count = data.filter(n => !n.read).length;
-                setUnreadCount(count);
+                setNotifications(prev => cursor ? [...prev, ...data.items] : data.items);
+                setNextCursor(data.nextCursor);
+                setUnreadCount(data.unreadCount);
             }
         } catch (error) {
             console.error("Error fetching notifications:", error);
@@ -39,8 +44,33 @@ export function Header({ onMenuClick }) {
         }
 
         fetchNotifications();
-        const interval = setInterval(fetchNotifications, 30000);
-        return () => clearInterval(interval);
+
+        // New notifications and the unread count are pushed by the server
+        if (!user.token) return;
+        let source = null;
+        let closed = false;
+        const connect = (token) => {
+            if (closed || !token) return;
+            source = new EventSource(`${API_URLS.NOTIFICATIONS}/stream?token=${encodeURIComponent(token)}`);
+            source.addEventListener('notification', (event) => {
+                const notification = JSON.parse(event.data);
+                setNotifications(prev => [notification, ...prev.filter(n => n.id !== notification.id)]);
+            });
+            source.addEventListener('unread-count', (event) => {
+                setUnreadCount(JSON.parse(event.data).count);
+            });
+            // The browser gives up when the (short-lived) token is rejected; reconnect with a fresh one
+            source.onerror = () => {
+                if (source.readyState === EventSource.CLOSED) {
+                    setTimeout(() => refreshSession().then(connect), 5000);
+                }
+            };
+        };
+        connect(user.token);
+        return () => {
+            closed = true;
+            if (source) source.close();
+        };
     }, []);
 
     const markAsRead = async (id) => {
@@ -51,7 +81,8 @@ export function Header({ onMenuClick }) {
                 headers: { 'Authorization': `Bearer ${user.token}` }
             });
             if (response.ok) {
-                fetchNotifications();
+                setNotifications(prev => prev.map(n => n.id === id ? { ...n, read: true } : n));
+                setUnreadCount(prev => Math.max(0, prev - 1));
             }
         } catch (error) {
             console.error("Error marking notification as read:", error);
@@ -66,7 +97,8 @@ export function Header({ onMenuClick }) {
                 headers: { 'Authorization': `Bearer ${user.token}` }
             });
             if (response.ok) {
-                fetchNotifications();
+                setNotifications(prev => prev.map(n => ({ ...n, read: true })));
+                setUnreadCount(0);
             }
         } catch (error) {
             console.error("Error marking all notifications as read:", error);
@@ -166,6 +198,14 @@ export function Header({ onMenuClick }) {
                                         </div>
                                     ))
                                 )}
+                                {nextCursor && (
+                                    <button
+                                        onClick={() => fetchNotifications(nextCursor)}
+                                        className="w-full p-3 text-xs text-blue-600 hover:bg-slate-50 font-semibold"
+                                    >
+                                        Voir plus
+                                    </button>
+                                )}
                             </div>
                         </div>
                     )}
@@ -1,6 +1,7 @@
 import { Home, Users, Wallet, Calendar, Settings, X, UserPlus, ArrowUpRight, ArrowDownRight, LogOut } from 'lucide-react';
 import { NavLink, useNavigate } from 'react-router-dom';
 import { Button } from '@/components/ui/button';
+import { logout } from '@/lib/session';
 
 const navigation = [
     { name: 'Tableau de bord', href: '/dashboard', icon: Home },
@@ -46,10 +47,9 @@ function SidebarContent({ onLinkClick }) {
 
     const filteredNavigation = navigation; // Show all nav items to authenticated users
 
-    const handleLogout = () => {
-        // Clear auth data
-        localStorage.removeItem('token');
-        localStorage.removeItem('user');
+    const handleLogout = async () => {
+        // Revoke the tokens server-side and clear auth data
+        await logout();
 
         // Close sidebar if on mobile
         if (onLinkClick) onLinkClick();
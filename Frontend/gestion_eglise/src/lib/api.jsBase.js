@@ -12,4 +12,8 @@ export const API_URLS = {
     NOTIFICATIONS: `${API_BASE_URL}/notifications`,
 };
 
+// The public snapshot holds server-relative paths ("/api/events/1/images/..."): resolve them against the API host
+export const resolveApiPath = (path) =>
+    path && path.startsWith('/') ? new URL(path, new URL(API_BASE_URL, window.location.origin)).href : path;
+
 export default API_BASE_URL;
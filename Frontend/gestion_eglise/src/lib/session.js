@@ -0,0 +1,71 @@
+import { API_URLS } from '@/lib/api.jsBase';
+
+let refreshing = null;
+let nativeFetch = window.fetch.bind(window);
+
+const readUser = () => JSON.parse(localStorage.getItem('user') || '{}');
+
+// Exchanges the refresh token for a new token pair. Concurrent callers share the same request
+// because each refresh token can only be used once.
+export function refreshSession() {
+    if (!refreshing) {
+        refreshing = (async () => {
+            const user = readUser();
+            if (!user.refreshToken) return null;
+            const response = await nativeFetch(`${API_URLS.AUTH}/refresh`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken: user.refreshToken })
+            });
+            if (!response.ok) {
+                localStorage.removeItem('token');
+                localStorage.removeItem('user');
+                return null;
+            }
+            const data = await response.json();
+            localStorage.setItem('token', data.token);
+            localStorage.setItem('user', JSON.stringify({ ...readUser(), token: data.token, refreshToken: data.refreshToken }));
+            return data.token;
+        })().finally(() => { refreshing = null; });
+    }
+    return refreshing;
+}
+
+export async function logout() {
+    const user = readUser();
+    try {
+        await nativeFetch(`${API_URLS.AUTH}/logout`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                ...(user.token ? { 'Authorization': `Bearer ${user.token}` } : {})
+            },
+            body: JSON.stringify({ refreshToken: user.refreshToken })
+        });
+    } catch (error) {
+        console.error("Error during logout:", error);
+    }
+    localStorage.removeItem('token');
+    localStorage.removeItem('user');
+}
+
+// Pages call fetch directly with the stored access token. Access tokens are short-lived,
+// so a 401 on an authenticated call triggers one refresh and a retry with the new token.
+export function installTokenRefresh() {
+    nativeFetch = window.fetch.bind(window);
+    window.fetch = async (input, init = {}) => {
+        const response = await nativeFetch(input, init);
+        const headers = new Headers(init.headers || {});
+        const url = typeof input === 'string' ? input : input.url;
+        if (response.status !== 401 || !headers.has('Authorization') || url.startsWith(API_URLS.AUTH)) {
+            return response;
+        }
+        const token = await refreshSession();
+        if (!token) {
+            window.location.assign('/login');
+            return response;
+        }
+        headers.set('Authorization', `Bearer ${token}`);
+        return nativeFetch(input, { ...init, headers });
+    };
+}
@@ -31,78 +31,33 @@ export function Dashboard() {
                     return;
                 }
 
-                const fetchWithAuth = (url) => fetch(url, {
+                // One aggregated call, the blocks are computed concurrently server-side
+                const response = await fetch('http://localhost:8080/api/dashboard', {
                     headers: { 'Authorization': `Bearer ${token}` }
                 });
 
-                const [membersRes, eventsRes, statsRes, monthlyStatsRes] = await Promise.all([
-                    fetchWithAuth('http://localhost:8080/api/members'),
-                    fetchWithAuth('http://localhost:8080/api/events'),
-                    fetchWithAuth('http://localhost:8080/api/transactions/stats'),
-                    fetchWithAuth('http://localhost:8080/api/transactions/monthly-stats')
-                ]);
-
-                console.log("Stats API responses:", {
-                    members: membersRes.status,
-                    events: eventsRes.status,
-                    stats: statsRes.status,
-                    monthly: monthlyStatsRes.status
-                });
-
-                if (membersRes.ok && eventsRes.ok && statsRes.ok) {
-                    const members = await membersRes.json();
-                    const events = await eventsRes.json();
-                    const treasuryStats = await statsRes.json();
-
-                    let monthlyStats = [];
-                    if (monthlyStatsRes.ok) {
-                        monthlyStats = await monthlyStatsRes.json();
-                        console.log("Monthly Stats data:", monthlyStats);
-                    } else {
-                        console.warn("Monthly stats endpoint failed with status:", monthlyStatsRes.status);
-                    }
-
-                    const now = new Date();
-                    const currentMonth = now.getMonth();
-                    const currentYear = now.getFullYear();
-
-                    // Member Stats
-                    const mStats = members.reduce((acc, m) => {
-                        acc.totalMembers++;
-                        if (m.gender === 'Homme') acc.men++;
-                        if (m.gender === 'Femme') acc.women++;
-
-                        const dob = m.birthDate || m.dob;
-                        if (dob) {
-                            const birthDate = new Date(dob);
-                            let age = now.getFullYear() - birthDate.getFullYear();
-                            if (now.getMonth() < birthDate.getMonth() || (now.getMonth() === birthDate.getMonth() && now.getDate() < birthDate.getDate())) {
-                                age--;
-                            }
-                            if (age < 15) acc.children++;
-                            else if (age < 35) acc.youth++;
-                        }
-
-                        const arrival = m.arrivalDate ? new Date(m.arrivalDate) : null;
-                        if (arrival && arrival.getMonth() === currentMonth && arrival.getFullYear() === currentYear) {
-                            acc.newThisMonth++;
-                        }
-                        return acc;
-                    }, { totalMembers: 0, men: 0, women: 0, youth: 0, children: 0, newThisMonth: 0 });
+                if (response.ok) {
+                    const dashboard = await response.json();
+                    const memberStats = dashboard.members;
 
                     setStats({
-                        ...mStats,
-                        totalEvents: events.length,
-                        upcomingEvents: [],
-                        eventsThisMonth: 0,
-                        totalIncome: treasuryStats.totalIncome,
-                        totalExpense: treasuryStats.totalExpense,
-                        totalBalance: treasuryStats.totalBalance
+                        totalMembers: memberStats.total,
+                        men: memberStats.byGender?.['Homme'] || 0,
+                        women: memberStats.byGender?.['Femme'] || 0,
+                        youth: memberStats.byAgeBucket?.['15-34'] || 0,
+                        children: memberStats.byAgeBucket?.['0-14'] || 0,
+                        newThisMonth: memberStats.newThisMonth,
+                        totalEvents: dashboard.totalEvents,
+                        upcomingEvents: dashboard.upcomingEvents,
+                        eventsThisMonth: dashboard.eventsThisMonth,
+                        totalIncome: dashboard.treasury.totalIncome,
+                        totalExpense: dashboard.treasury.totalExpense,
+                        totalBalance: dashboard.treasury.totalBalance
                     });
 
-                    setChartData(monthlyStats);
+                    setChartData(dashboard.monthlyStats);
                 } else {
-                    console.error("One or more required stats endpoints failed.");
+                    console.error("Dashboard endpoint failed with status:", response.status);
                 }
             } catch (error) {
                 console.error("Dashboard stats error:", error);
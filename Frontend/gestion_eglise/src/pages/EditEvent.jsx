@@ -98,6 +98,11 @@ export function EditEvent() {
                     return preview; // Already Base64
                 }
 
+                // Images already stored on the server are referenced by URL
+                if (preview && typeof preview === 'string' && preview.startsWith('http')) {
+                    return preview;
+                }
+
                 // If it's a blob URL, we need to find the corresponding File object
                 // But in this implementation, we can just use the previews state directly 
                 // if we modify handleFileChange to store the files themselves or do the conversion then.
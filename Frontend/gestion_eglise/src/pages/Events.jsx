@@ -92,7 +92,7 @@ export function Events() {
                         <Card key={event.id} className="overflow-hidden hover:shadow-md transition-shadow group border-none shadow-sm">
                             <div className="h-48 bg-slate-100 relative group-hover:brightness-90 transition-all overflow-hidden">
                                 <img
-                                    src={(event.images && event.images.length > 0) ? event.images[0] : getEventImage(event.type)}
+                                    src={event.coverImage ? event.coverImage : getEventImage(event.type)}
                                     alt={event.title}
                                     className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-500"
                                 />
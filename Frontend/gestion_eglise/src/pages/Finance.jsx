@@ -17,7 +17,9 @@ import {
 
 export function Finance() {
     const navigate = useNavigate();
-    const [transactions, setTransactions] = useState([]);
+    const emptyLedger = { items: [], nextCursor: null, totalCount: 0, subtotal: 0 };
+    const [incomes, setIncomes] = useState(emptyLedger);
+    const [expenses, setExpenses] = useState(emptyLedger);
     const [stats, setStats] = useState({
         totalIncome: 0,
         totalExpense: 0,
@@ -30,35 +32,56 @@ export function Finance() {
     const [isLoading, setIsLoading] = useState(true);
     const [incomeSearch, setIncomeSearch] = useState('');
     const [expenseSearch, setExpenseSearch] = useState('');
-    const [visibleIncomes, setVisibleIncomes] = useState(5);
-    const [visibleExpenses, setVisibleExpenses] = useState(5);
+    const PAGE_SIZE = 5;
 
-    const fetchData = async () => {
-        setIsLoading(true);
+    const getHeaders = () => {
         const user = JSON.parse(localStorage.getItem('user'));
         const token = user?.token;
-
         if (!token) {
             navigate('/login');
-            return;
+            return null;
         }
-
-        const headers = {
+        return {
             'Authorization': `Bearer ${token}`,
             'Content-Type': 'application/json'
         };
+    };
+
+    // One page of the server-side ledger (newest first, keyset paginated)
+    const fetchLedgerPage = async (type, search, cursor, size, includeTotal) => {
+        const headers = getHeaders();
+        if (!headers) return null;
+        const params = new URLSearchParams({ type, size: String(size) });
+        if (search.trim()) params.set('search', search.trim());
+        if (cursor) params.set('cursor', cursor);
+        if (includeTotal) params.set('includeTotal', 'true');
+        const res = await fetch(`http://localhost:8080/api/transactions/ledger?${params}`, { headers });
+        return res.ok ? res.json() : null;
+    };
 
+    const loadLedger = async (type, search, setLedger, append) => {
         try {
-            const [transRes, statsRes] = await Promise.all([
-                fetch('http://localhost:8080/api/transactions', { headers }),
-                fetch('http://localhost:8080/api/transactions/stats', { headers })
-            ]);
+            const cursor = append ? (type === 'INCOME' ? incomes : expenses).nextCursor : null;
+            const page = await fetchLedgerPage(type, search, cursor, PAGE_SIZE, !append);
+            if (!page) return;
+            const subtotal = type === 'INCOME' ? page.pageIncome : page.pageExpense;
+            setLedger(prev => append
+                ? { ...prev, items: [...prev.items, ...page.items], nextCursor: page.nextCursor, subtotal: prev.subtotal + subtotal }
+                : { items: page.items, nextCursor: page.nextCursor, totalCount: page.totalCount, subtotal });
+        } catch (error) {
+            console.error("Error fetching ledger:", error);
+        }
+    };
+
+    const fetchData = async () => {
+        setIsLoading(true);
+        const headers = getHeaders();
+        if (!headers) return;
 
-            if (transRes.ok && statsRes.ok) {
-                const transData = await transRes.json();
-                const statsData = await statsRes.json();
-                setTransactions(transData);
-                setStats(statsData);
+        try {
+            const statsRes = await fetch('http://localhost:8080/api/transactions/stats', { headers });
+            if (statsRes.ok) {
+                setStats(await statsRes.json());
             }
         } catch (error) {
             console.error("Error fetching finance data:", error);
@@ -71,6 +94,30 @@ export function Finance() {
         fetchData();
     }, []);
 
+    // Searches run server-side, debounced
+    useEffect(() => {
+        const timer = setTimeout(() => loadLedger('INCOME', incomeSearch, setIncomes, false), 300);
+        return () => clearTimeout(timer);
+    }, [incomeSearch]);
+
+    useEffect(() => {
+        const timer = setTimeout(() => loadLedger('EXPENSE', expenseSearch, setExpenses, false), 300);
+        return () => clearTimeout(timer);
+    }, [expenseSearch]);
+
+    // Every page matching the current search, for the PDF journal
+    const fetchAllLedger = async (type, search) => {
+        const items = [];
+        let cursor = null;
+        do {
+            const page = await fetchLedgerPage(type, search, cursor, 200, false);
+            if (!page) break;
+            items.push(...page.items);
+            cursor = page.nextCursor;
+        } while (cursor);
+        return items;
+    };
+
     const {
         soldeCaisseAnterieur,
         soldeBanqueAnterieur,
@@ -80,25 +127,8 @@ export function Finance() {
         totalExpense
     } = stats;
 
-    // Filter and Paginate Incomes
-    const filteredIncomes = transactions
-        .filter(t => t.type === 'INCOME')
-        .filter(t =>
-            (t.category?.toLowerCase() || '').includes(incomeSearch.toLowerCase()) ||
-            (t.date?.toLowerCase() || '').includes(incomeSearch.toLowerCase()) ||
-            (t.amount?.toString() || '').includes(incomeSearch.toLowerCase())
-        );
-    const displayedIncomes = filteredIncomes.slice(0, visibleIncomes);
-
-    // Filter and Paginate Expenses
-    const filteredExpenses = transactions
-        .filter(t => t.type === 'EXPENSE')
-        .filter(t =>
-            (t.description?.toLowerCase() || '').includes(expenseSearch.toLowerCase()) ||
-            (t.date?.toLowerCase() || '').includes(expenseSearch.toLowerCase()) ||
-            (t.amount?.toString() || '').includes(expenseSearch.toLowerCase())
-        );
-    const displayedExpenses = filteredExpenses.slice(0, visibleExpenses);
+    const displayedIncomes = incomes.items;
+    const displayedExpenses = expenses.items;
 
     const formatAmount = (amount) => {
         if (amount === undefined || amount === null) amount = 0;
@@ -106,8 +136,13 @@ export function Finance() {
         return amount.toString().replace(/\B(?=(\d{3})+(?!\d))/g, " ") + ' FCFA';
     };
 
-    const exportToPDF = () => {
+    const exportToPDF = async () => {
         try {
+            const [filteredIncomes, filteredExpenses] = await Promise.all([
+                fetchAllLedger('INCOME', incomeSearch),
+                fetchAllLedger('EXPENSE', expenseSearch)
+            ]);
+
             const doc = new jsPDF();
             const now = new Date();
             const dateStr = now.toLocaleDateString('fr-FR');
@@ -255,7 +290,7 @@ export function Finance() {
                         <div className="relative">
                             <Search className="absolute left-2 top-2.5 h-4 w-4 text-muted-foreground" />
                             <Input
-                                placeholder="Rechercher une recette..."
+                                placeholder="Rechercher une recette (libellé, date, montant)..."
                                 className="pl-8 h-9"
                                 value={incomeSearch}
                                 onChange={(e) => setIncomeSearch(e.target.value)}
@@ -291,15 +326,18 @@ export function Finance() {
                                 )}
                             </TableBody>
                         </Table>
-                        {filteredIncomes.length > visibleIncomes && (
+                        <div className="px-4 py-2 border-t text-right text-xs text-muted-foreground">
+                            Sous-total affiché : {formatAmount(incomes.subtotal)}
+                        </div>
+                        {incomes.nextCursor && (
                             <div className="p-4 border-t text-center">
                                 <Button
                                     variant="ghost"
                                     size="sm"
                                     className="text-green-700 hover:text-green-800 hover:bg-green-50"
-                                    onClick={() => setVisibleIncomes(prev => prev + 5)}
+                                    onClick={() => loadLedger('INCOME', incomeSearch, setIncomes, true)}
                                 >
-                                    Voir plus ({filteredIncomes.length - visibleIncomes} restants)
+                                    Voir plus ({incomes.totalCount - incomes.items.length} restants)
                                 </Button>
                             </div>
                         )}
@@ -315,7 +353,7 @@ export function Finance() {
                         <div className="relative">
                             <Search className="absolute left-2 top-2.5 h-4 w-4 text-muted-foreground" />
                             <Input
-                                placeholder="Rechercher une dépense..."
+                                placeholder="Rechercher une dépense (désignation, date, montant)..."
                                 className="pl-8 h-9"
                                 value={expenseSearch}
                                 onChange={(e) => setExpenseSearch(e.target.value)}
@@ -351,15 +389,18 @@ export function Finance() {
                                 )}
                             </TableBody>
                         </Table>
-                        {filteredExpenses.length > visibleExpenses && (
+                        <div className="px-4 py-2 border-t text-right text-xs text-muted-foreground">
+                            Sous-total affiché : {formatAmount(expenses.subtotal)}
+                        </div>
+                        {expenses.nextCursor && (
                             <div className="p-4 border-t text-center">
                                 <Button
                                     variant="ghost"
                                     size="sm"
                                     className="text-red-700 hover:text-red-800 hover:bg-red-50"
-                                    onClick={() => setVisibleExpenses(prev => prev + 5)}
+                                    onClick={() => loadLedger('EXPENSE', expenseSearch, setExpenses, true)}
                                 >
-                                    Voir plus ({filteredExpenses.length - visibleExpenses} restants)
+                                    Voir plus ({expenses.totalCount - expenses.items.length} restants)
                                 </Button>
                             </div>
                         )}
@@ -3,6 +3,7 @@ import { Calendar, User, ArrowRight, Menu, X, LogIn, MapPin, Clock, Mail, Phone,
 import { useState, useEffect } from 'react';
 import { Button } from '@/components/ui/button';
 import { Badge } from '@/components/ui/badge';
+import { resolveApiPath } from '@/lib/api.jsBase';
 
 export function LandingPage() {
     const navigate = useNavigate();
@@ -26,17 +27,15 @@ export function LandingPage() {
     useEffect(() => {
         const fetchPublicData = async () => {
             try {
-                const [statsRes, eventsRes, schedulesRes, churchRes] = await Promise.all([
-                    fetch('http://localhost:8080/api/public/stats'),
-                    fetch('http://localhost:8080/api/public/events/latest'),
-                    fetch('http://localhost:8080/api/public/schedules'),
-                    fetch('http://localhost:8080/api/public/church-info')
-                ]);
+                const response = await fetch('http://localhost:8080/api/public/landing');
 
-                if (statsRes.ok) setStats(await statsRes.json());
-                if (eventsRes.ok) setLatestEvents(await eventsRes.json());
-                if (schedulesRes.ok) setSchedules(await schedulesRes.json());
-                if (churchRes.ok) setChurchInfo(await churchRes.json());
+                if (response.ok) {
+                    const data = await response.json();
+                    setStats(data.stats);
+                    setLatestEvents(data.latestEvents);
+                    setSchedules(data.schedules);
+                    setChurchInfo(data.churchInfo);
+                }
 
             } catch (error) {
                 console.error("Home page fetch error:", error);
@@ -210,7 +209,7 @@ export function LandingPage() {
                                 <div className="h-48 overflow-hidden relative">
                                     <div className="absolute inset-0 bg-gradient-to-t from-black/20 to-transparent z-10" />
                                     <img
-                                        src={(event.images && event.images.length > 0) ? event.images[0] : "https://images.unsplash.com/photo-1548484352-ea1b3e8d2a74?q=80&w=2070&auto=format&fit=crop"}
+                                        src={event.coverImage ? resolveApiPath(event.coverImage) : "https://images.unsplash.com/photo-1548484352-ea1b3e8d2a74?q=80&w=2070&auto=format&fit=crop"}
                                         alt={event.title}
                                         className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-500"
                                     />
@@ -62,7 +62,8 @@ export function Login() {
                     email: data.email,
                     fullName: data.fullName,
                     role: data.role,
-                    token: data.token // Crucial for other pages to see the token
+                    token: data.token, // Crucial for other pages to see the token
+                    refreshToken: data.refreshToken
                 }));
                 navigate('/dashboard');
             } else {
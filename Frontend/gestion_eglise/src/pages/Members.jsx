@@ -1,6 +1,6 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { Plus, Download, FileSpreadsheet, Search, Trash2 } from 'lucide-react';
+import { Plus, Download, FileSpreadsheet, Search, Trash2, Upload } from 'lucide-react';
 import jsPDF from 'jspdf';
 import autoTable from 'jspdf-autotable';
 import * as XLSX from 'xlsx';
@@ -23,6 +23,9 @@ export function Members() {
     const [isLoading, setIsLoading] = useState(true);
     const [selectedIds, setSelectedIds] = useState([]);
     const [visibleCount, setVisibleCount] = useState(5);
+    const [isImporting, setIsImporting] = useState(false);
+    const [reloadKey, setReloadKey] = useState(0);
+    const importInput = useRef(null);
     const userStr = localStorage.getItem('user');
     const user = userStr ? JSON.parse(userStr) : null;
     const isAdmin = user?.role === 'ADMIN' || user?.role === 'ROLE_ADMIN';
@@ -58,14 +61,42 @@ export function Members() {
         };
 
         fetchMembers();
-    }, [navigate]);
+    }, [navigate, reloadKey]);
 
-    const filteredMembers = members
-        .filter(member =>
-            (`${member.firstName || member.firstname || ''} ${member.lastName || member.lastname || ''}`).toLowerCase().includes(searchTerm.toLowerCase()) ||
-            (member.matricule || '').toLowerCase().includes(searchTerm.toLowerCase())
-        )
-        .sort((a, b) => b.id - a.id); // Sort by latest first
+    const [searchResults, setSearchResults] = useState(null);
+
+    // Ranked, typo-tolerant matches from the server once two characters are typed
+    useEffect(() => {
+        const term = searchTerm.trim();
+        if (term.length < 2) {
+            setSearchResults(null);
+            return;
+        }
+        const controller = new AbortController();
+        const timer = setTimeout(async () => {
+            try {
+                const token = JSON.parse(localStorage.getItem('user'))?.token;
+                const response = await fetch(
+                    `http://localhost:8080/api/members/search?q=${encodeURIComponent(term)}&limit=50`,
+                    { headers: { 'Authorization': `Bearer ${token}` }, signal: controller.signal }
+                );
+                if (response.ok) {
+                    setSearchResults(await response.json());
+                }
+            } catch (error) {
+                if (error.name !== 'AbortError') {
+                    console.error("Search error:", error);
+                }
+            }
+        }, 150);
+        return () => {
+            clearTimeout(timer);
+            controller.abort();
+        };
+    }, [searchTerm, reloadKey]);
+
+    const filteredMembers = searchResults
+        ?? [...members].sort((a, b) => b.id - a.id); // Sort by latest first
 
     const displayedMembers = filteredMembers.slice(0, visibleCount);
 
@@ -126,6 +157,44 @@ export function Members() {
         XLSX.writeFile(workbook, `membres_${new Date().getTime()}.xlsx`);
     };
 
+    // Same columns as the Excel export, so an exported file can be re-imported
+    const importMembers = async (event) => {
+        const file = event.target.files?.[0];
+        event.target.value = '';
+        if (!file) return;
+
+        setIsImporting(true);
+        try {
+            const token = JSON.parse(localStorage.getItem('user'))?.token;
+            const formData = new FormData();
+            formData.append('file', file);
+            const response = await fetch('http://localhost:8080/api/members/import', {
+                method: 'POST',
+                headers: { 'Authorization': `Bearer ${token}` },
+                body: formData
+            });
+            const report = await response.json();
+            if (!response.ok) {
+                alert(report.message || "Erreur lors de l'import.");
+                return;
+            }
+            const details = report.errors.slice(0, 10)
+                .map(e => `Ligne ${e.row}${e.field ? ` (${e.field})` : ''} : ${e.message}`)
+                .join('\n');
+            alert(`${report.imported} membre(s) importé(s) sur ${report.totalRows} ligne(s).`
+                + (report.rejected > 0 ? `\n${report.rejected} ligne(s) rejetée(s) :\n${details}` : '')
+                + (report.errors.length > 10 || report.errorsTruncated ? '\n...' : ''));
+            if (report.imported > 0) {
+                setReloadKey(k => k + 1);
+            }
+        } catch (error) {
+            console.error("Import error:", error);
+            alert("Une erreur est survenue lors de l'import.");
+        } finally {
+            setIsImporting(false);
+        }
+    };
+
     const toggleSelectAll = () => {
         if (selectedIds.length === filteredMembers.length) {
             setSelectedIds([]);
@@ -167,6 +236,7 @@ export function Members() {
 
             if (response.ok) {
                 setMembers(members.filter(m => !idsToDelete.includes(m.id)));
+                setSearchResults(results => results && results.filter(m => !idsToDelete.includes(m.id)));
                 setSelectedIds(selectedIds.filter(i => !idsToDelete.includes(i)));
             } else {
                 alert("Erreur lors de la suppression.");
@@ -193,6 +263,22 @@ export function Members() {
                         <FileSpreadsheet className="mr-2 h-4 w-4" />
                         Exporter Excel
                     </Button>
+                    <input
+                        ref={importInput}
+                        type="file"
+                        accept=".csv,.xlsx"
+                        className="hidden"
+                        onChange={importMembers}
+                    />
+                    <Button
+                        variant="outline"
+                        className="flex-1 sm:flex-none"
+                        onClick={() => importInput.current?.click()}
+                        disabled={isImporting}
+                    >
+                        <Upload className="mr-2 h-4 w-4" />
+                        {isImporting ? 'Import en cours...' : 'Importer'}
+                    </Button>
                     <Button onClick={() => navigate('/members/new')} className="flex-1 sm:flex-none">
                         <Plus className="mr-2 h-4 w-4" />
                         Nouveau Membre
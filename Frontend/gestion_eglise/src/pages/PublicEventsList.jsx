@@ -105,7 +105,7 @@ export function PublicEventsList() {
                             <Card key={event.id} className="group border-none shadow-sm hover:shadow-xl transition-all duration-500 rounded-[2rem] overflow-hidden bg-white">
                                 <div className="relative h-60 overflow-hidden">
                                     <img
-                                        src={(event.images && event.images.length > 0) ? event.images[0] : "https://images.unsplash.com/photo-1548484352-ea1b3e8d2a74?q=80&w=2070&auto=format&fit=crop"}
+                                        src={event.coverImage ? event.coverImage : "https://images.unsplash.com/photo-1548484352-ea1b3e8d2a74?q=80&w=2070&auto=format&fit=crop"}
                                         alt={event.title}
                                         className="w-full h-full object-cover group-hover:scale-110 transition-transform duration-700"
                                     />
@@ -292,6 +292,12 @@ export function Settings() {
             });
 
             if (response.ok) {
+                // Other sessions are revoked; keep this one with the new token pair
+                const data = await response.json();
+                if (data.token) {
+                    localStorage.setItem('token', data.token);
+                    localStorage.setItem('user', JSON.stringify({ ...user, token: data.token, refreshToken: data.refreshToken }));
+                }
                 setSecurity({ currentPassword: '', newPassword: '', confirmPassword: '' });
                 alert("Mot de passe changé avec succès !");
             } else {